@@ -0,0 +1,38 @@
+// k6 load test for POST /api/transactions.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ACCOUNT_ID=1 load-test/create-transaction.js
+//
+// Run it once against the default platform-thread build and once with
+// --spring.profiles.active=virtual-threads (Java 21) and compare http_req_failed and the p(99) lines.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ACCOUNT_ID = Number(__ENV.ACCOUNT_ID || 1);
+
+export const options = {
+    scenarios: {
+        ramp_to_5k: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 1000 },
+                { duration: '30s', target: 5000 },
+                { duration: '2m', target: 5000 },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const response = http.post(`${BASE_URL}/api/transactions`, JSON.stringify({
+        accountId: ACCOUNT_ID,
+        operationTypeId: 4,
+        amount: 10,
+    }), { headers: { 'Content-Type': 'application/json' }, timeout: '30s' });
+
+    check(response, { 'created': (r) => r.status === 201 });
+}
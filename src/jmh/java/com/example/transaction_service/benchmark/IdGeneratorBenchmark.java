@@ -0,0 +1,50 @@
+package com.example.transaction_service.benchmark;
+
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Id generation throughput, uncontended and with four threads sharing one generator.
+ * {@code atomicCounterContended} is the floor: a bare {@code AtomicLong} increment under the same contention.
+ * Run with {@code -prof gc} to confirm generation does not allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0);
+    private final AtomicLong counter = new AtomicLong();
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId(0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return generator.nextId(0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long atomicCounterContended() {
+        return counter.incrementAndGet();
+    }
+}
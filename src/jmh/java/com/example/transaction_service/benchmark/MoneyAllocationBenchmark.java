@@ -0,0 +1,96 @@
+package com.example.transaction_service.benchmark;
+
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-request garbage of the amount handling on the write path: read the amount from the request body,
+ * validate it, apply the operation type's sign and add it to the account's running balance.
+ * The {@code bigDecimal*} benchmarks replay the previous {@code BigDecimal} implementation as a baseline.
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}; the {@code amount*} pair leaves out
+ * JSON parsing, which both variants share.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyAllocationBenchmark {
+
+    private static final byte[] BODY = "{\"accountId\": 1, \"operationTypeId\": 1, \"amount\": 123.45}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader moneyReader = objectMapper.readerFor(TransactionRequestDTO.class);
+    private final ObjectReader bigDecimalReader = objectMapper.readerFor(BigDecimalRequest.class);
+
+    private final Money money = Money.parse("123.45");
+    private final BigDecimal bigDecimal = new BigDecimal("123.45");
+
+    private final AtomicLong balanceCents = new AtomicLong();
+    private final AtomicReference<BigDecimal> balance = new AtomicReference<>(BigDecimal.ZERO);
+
+    @Benchmark
+    public long request() throws IOException {
+        TransactionRequestDTO request = moneyReader.readValue(BODY);
+        return record(OperationType.fromId(request.getOperationTypeId()), request.getAmount());
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalRequest() throws IOException {
+        BigDecimalRequest request = bigDecimalReader.readValue(BODY);
+        return record(OperationType.fromId(request.operationTypeId), request.amount);
+    }
+
+    @Benchmark
+    public long amount() {
+        return record(OperationType.NORMAL_PURCHASE, money);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAmount() {
+        return record(OperationType.NORMAL_PURCHASE, bigDecimal);
+    }
+
+    private long record(OperationType operationType, Money amount) {
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException();
+        }
+        return balanceCents.addAndGet(operationType.applySign(amount).getCents());
+    }
+
+    private BigDecimal record(OperationType operationType, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException();
+        }
+        BigDecimal signed = operationType.isDebit() ? amount.negate() : amount;
+        return balance.accumulateAndGet(signed, BigDecimal::add);
+    }
+
+    // The request as it was bound before Money: the same fields, with the amount as a BigDecimal
+    public static class BigDecimalRequest {
+        public Long accountId;
+        public Integer operationTypeId;
+        public BigDecimal amount;
+    }
+}
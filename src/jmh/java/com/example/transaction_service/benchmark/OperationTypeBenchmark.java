@@ -0,0 +1,100 @@
+package com.example.transaction_service.benchmark;
+
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operation type resolution and sign adjustment as done per row by the single, batch and write-behind
+ * paths. The {@code linear*} benchmarks replay the previous implementation (a {@code values()} scan and
+ * an equality chain) as a baseline; run with {@code -prof gc} to confirm the lookup does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OperationTypeBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private final int[] ids = new int[ROWS];
+    private final OperationType[] types = new OperationType[ROWS];
+    private final Money amount = Money.parse("123.45");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // A random mix so the branch predictor cannot learn a single type
+        SplittableRandom random = new SplittableRandom(42);
+        OperationType[] values = OperationType.values();
+        for (int i = 0; i < ROWS; i++) {
+            types[i] = values[random.nextInt(values.length)];
+            ids[i] = types[i].getId();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromId(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(OperationType.fromId(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void linearFromId(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(linearLookup(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void applySign(Blackhole blackhole) {
+        for (OperationType type : types) {
+            blackhole.consume(type.applySign(amount));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void linearApplySign(Blackhole blackhole) {
+        for (OperationType type : types) {
+            blackhole.consume(linearAdjust(type, amount));
+        }
+    }
+
+    private static OperationType linearLookup(int id) {
+        for (OperationType type : OperationType.values()) {
+            if (type.getId() == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid OperationType ID: " + id);
+    }
+
+    private static Money linearAdjust(OperationType operationType, Money amount) {
+        if (operationType == OperationType.NORMAL_PURCHASE || operationType == OperationType.WITHDRAWAL ||
+                operationType == OperationType.PURCHASE_INSTALLMENTS) {
+            return amount.negate();
+        }
+        return amount;
+    }
+}
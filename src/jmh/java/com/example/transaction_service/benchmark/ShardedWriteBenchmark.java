@@ -0,0 +1,110 @@
+package com.example.transaction_service.benchmark;
+
+import com.example.transaction_service.TransactionServiceApplication;
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write throughput with the accounts spread over 1, 2 or 4 embedded H2 shards.
+ *
+ * <p>Every benchmark thread writes to its own account; accounts are created round-robin, so with
+ * {@code -t} at least the shard count every shard receives writes. Run with {@code -t 8} or more to see
+ * the pools scale; H2 in memory only stands in for separate database servers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class ShardedWriteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        @Param({"1", "2", "4"})
+        public int shards;
+
+        ConfigurableApplicationContext context;
+        TransactionService transactionService;
+        AccountService accountService;
+        private final AtomicLong documentNumbers = new AtomicLong(100_000_000_000L);
+
+        @Setup(Level.Trial)
+        public void start() {
+            List<String> properties = new ArrayList<>(List.of(
+                    "spring.datasource.url=jdbc:h2:mem:sharded-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    "spring.docker.compose.enabled=false",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.root=WARN",
+                    "transaction.sharding.enabled=" + (shards > 1),
+                    "transaction.sharding.shard-count=" + shards));
+            for (int shard = 0; shard < shards; shard++) {
+                properties.add("transaction.sharding.shards[" + shard + "].jdbc-url=jdbc:h2:mem:shard-benchmark-"
+                        + shard + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+                properties.add("transaction.sharding.shards[" + shard + "].username=sa");
+            }
+            context = new SpringApplicationBuilder(TransactionServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(properties.toArray(String[]::new))
+                    .run();
+            transactionService = context.getBean(TransactionService.class);
+            accountService = context.getBean(AccountService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        long createAccount() {
+            AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+            accountRequestDTO.setDocumentNumber(String.valueOf(documentNumbers.incrementAndGet()));
+            return accountService.createAccount(accountRequestDTO).getAccountId();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        TransactionRequestDTO request;
+
+        @Setup(Level.Trial)
+        public void createAccount(Application application) {
+            request = new TransactionRequestDTO();
+            request.setAccountId(application.createAccount());
+            request.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
+            request.setAmount(Money.of(100));
+        }
+    }
+
+    @Benchmark
+    public TransactionResponseDTO createTransaction(Application application, Writer writer) {
+        return application.transactionService.createTransaction(writer.request);
+    }
+}
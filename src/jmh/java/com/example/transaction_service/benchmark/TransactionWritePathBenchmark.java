@@ -0,0 +1,191 @@
+package com.example.transaction_service.benchmark;
+
+import com.example.transaction_service.TransactionServiceApplication;
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the TransactionService write path against an embedded H2 database.
+ *
+ * <p>Throughput and sampled latency (p99 is reported as {@code p0.99}) come from the two benchmark
+ * modes; add {@code -prof gc} for allocation rate and {@code -t N} to vary the number of threads.
+ * {@code payInstallmentByNumber} pays a fixed batch of prepared installments per iteration instead, and
+ * reports the time per batch.
+ * {@code -p metricsEnabled=false} runs without the TransactionMetrics timers and Hibernate statistics;
+ * {@code -p logging=default,prod} includes the cost of logging and SQL echo.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TransactionWritePathBenchmark {
+
+    private static final Money INSTALLMENT_AMOUNT = Money.of(10);
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        // Stage timers and Hibernate statistics on or off, to keep the instrumentation overhead visible
+        @Param({"true", "false"})
+        public boolean metricsEnabled;
+
+        // quiet: SQL echo off and root at WARN; default: the shipped configuration; prod: the prod profile
+        @Param({"quiet"})
+        public String logging;
+
+        ConfigurableApplicationContext context;
+        TransactionService transactionService;
+        long accountId;
+        private final AtomicLong documentNumbers = new AtomicLong(100_000_000_000L);
+
+        @Setup(Level.Trial)
+        public void start() {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(TransactionServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                            "spring.docker.compose.enabled=false",
+                            "transaction.metrics.enabled=" + metricsEnabled);
+            if ("quiet".equals(logging)) {
+                builder.properties("spring.jpa.show-sql=false", "logging.level.root=WARN");
+            } else if ("prod".equals(logging)) {
+                builder.profiles("prod");
+            }
+            context = builder.run();
+            transactionService = context.getBean(TransactionService.class);
+            accountId = createAccount();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        long createAccount() {
+            AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+            accountRequestDTO.setDocumentNumber(String.valueOf(documentNumbers.incrementAndGet()));
+            return context.getBean(AccountService.class).createAccount(accountRequestDTO).getAccountId();
+        }
+
+        TransactionRequestDTO purchase() {
+            TransactionRequestDTO request = new TransactionRequestDTO();
+            request.setAccountId(accountId);
+            request.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
+            request.setAmount(Money.of(100));
+            return request;
+        }
+
+    }
+
+    // Only the benchmarks that take this state run once per installment count
+    @State(Scope.Benchmark)
+    public static class InstallmentPlan {
+        @Param({"1", "12", "48"})
+        public int installmentCount;
+
+        TransactionRequestDTO installmentPurchase(Application application) {
+            List<InstallmentDTO> installments = new ArrayList<>(installmentCount);
+            for (int i = 0; i < installmentCount; i++) {
+                InstallmentDTO installment = new InstallmentDTO();
+                installment.setAmount(INSTALLMENT_AMOUNT);
+                installments.add(installment);
+            }
+
+            TransactionRequestDTO request = new TransactionRequestDTO();
+            request.setAccountId(application.accountId);
+            request.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+            request.setAmount(Money.ofCents(INSTALLMENT_AMOUNT.getCents() * installmentCount));
+            request.setInstallments(installments);
+            return request;
+        }
+    }
+
+    /**
+     * Pending installments owned by one benchmark thread, one iteration's batch at a time. The queue is
+     * filled before each iteration, so creating purchases never runs inside the measured payment path.
+     */
+    @State(Scope.Thread)
+    public static class PendingInstallments {
+        static final int PAYMENTS_PER_ITERATION = 10_000;
+
+        private final ArrayDeque<PayInstallmentRequestDTO> pending = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void refill(Application application, InstallmentPlan plan) {
+            while (pending.size() < PAYMENTS_PER_ITERATION) {
+                addPurchase(application, plan);
+            }
+        }
+
+        PayInstallmentRequestDTO next() {
+            PayInstallmentRequestDTO request = pending.poll();
+            if (request == null) {
+                throw new IllegalStateException("More payments than the " + PAYMENTS_PER_ITERATION
+                        + " prepared for the iteration");
+            }
+            return request;
+        }
+
+        private void addPurchase(Application application, InstallmentPlan plan) {
+            TransactionResponseDTO purchase = application.transactionService
+                    .createTransaction(plan.installmentPurchase(application));
+            for (int number = 1; number <= plan.installmentCount; number++) {
+                PayInstallmentRequestDTO request = new PayInstallmentRequestDTO();
+                request.setAccountId(application.accountId);
+                request.setTransactionId(purchase.getTransactionId());
+                request.setInstallmentNumber(number);
+                request.setAmount(INSTALLMENT_AMOUNT);
+                pending.add(request);
+            }
+        }
+    }
+
+    @Benchmark
+    public TransactionResponseDTO createTransaction(Application application) {
+        return application.transactionService.createTransaction(application.purchase());
+    }
+
+    @Benchmark
+    public TransactionResponseDTO createTransactionWithInstallments(Application application, InstallmentPlan plan) {
+        return application.transactionService.createTransaction(plan.installmentPurchase(application));
+    }
+
+    // Exactly one prepared batch per iteration; divide the score by PAYMENTS_PER_ITERATION for the time per payment
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = PendingInstallments.PAYMENTS_PER_ITERATION)
+    @Measurement(iterations = 5, batchSize = PendingInstallments.PAYMENTS_PER_ITERATION)
+    public TransactionResponseDTO payInstallmentByNumber(Application application, PendingInstallments installments) {
+        return application.transactionService.payInstallmentByNumber(installments.next());
+    }
+}
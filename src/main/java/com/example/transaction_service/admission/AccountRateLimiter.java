@@ -0,0 +1,91 @@
+package com.example.transaction_service.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per account, refilled at a fixed rate up to a burst size.
+ *
+ * <p>Each bucket is a single {@code AtomicLong} holding the time at which it will be full again, the GCRA form
+ * of a token bucket: taking a token moves that time one refill interval later, and the bucket is empty once it
+ * lies more than the burst ahead of now. Taking a token is one compare-and-set, with no lock and no allocation
+ * after the bucket exists.
+ *
+ * <p>Memory is bounded by {@code maximumBuckets}. A bucket whose full-again time has passed is idle and holds no
+ * state that a new bucket would not, so reaching the bound removes the idle buckets. If every bucket is still in
+ * use, further accounts are not limited until some go idle; the global concurrency limit still applies to them.
+ */
+public class AccountRateLimiter {
+    private final ConcurrentHashMap<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maximumBuckets;
+    private final LongSupplier nanoClock;
+
+    public AccountRateLimiter(double permitsPerSecond, int burst, int maximumBuckets, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1 || maximumBuckets < 1) {
+            throw new IllegalArgumentException("Rate, burst and maximum buckets must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = Math.multiplyExact(intervalNanos, burst);
+        this.maximumBuckets = maximumBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the account's bucket. Returns 0 when one was taken, otherwise the nanoseconds until
+     * the next token is available.
+     */
+    public long tryAcquire(long accountId) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(accountId, now);
+        if (bucket == null) {
+            return 0;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(long accountId, long now) {
+        AtomicLong bucket = buckets.get(accountId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maximumBuckets) {
+            removeIdle(now);
+            if (buckets.size() >= maximumBuckets) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(accountId, id -> new AtomicLong(now));
+    }
+
+    // One sweep at a time; the others carry on without waiting for it. A request holding a bucket as it is
+    // removed spends its token on the removed bucket, which at worst grants the account one extra burst.
+    private void removeIdle(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.transaction_service.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit on requests in flight that follows the latency they observe, in the manner of a gradient limiter.
+ *
+ * <p>Two moving averages of request latency are kept: a short one that tracks current conditions and a long
+ * one that serves as the no-load baseline. While the short average stays within {@code TOLERANCE} of the
+ * baseline the limit grows by a fifth of its square root per sample; once the database slows down and the short
+ * average rises past that, the limit shrinks in proportion, by up to a tenth per sample. The limit only moves
+ * while at least half of it is in use, so an idle service does not drift to the maximum.
+ *
+ * <p>Admission is a compare-and-set on the in-flight count. Samples are folded in under a lock that is only
+ * tried, so releases never wait on each other; a sample that finds the lock taken is dropped.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double TOLERANCE = 1.5;
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.002;
+    private static final double SMOOTHING = 0.2;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private volatile int limit;
+
+    // Guarded by sampleLock
+    private double estimatedLimit;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minimumLimit, int maximumLimit) {
+        if (minimumLimit < 1 || minimumLimit > initialLimit || initialLimit > maximumLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minimum <= initial <= maximum");
+        }
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} without recording a latency sample.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} and records how long the request held it.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos <= 0 || !sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            sample(latencyNanos, inFlightBefore);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void sample(long latencyNanos, int inFlightBefore) {
+        if (longLatencyNanos == 0) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += (latencyNanos - shortLatencyNanos) * SHORT_ALPHA;
+        longLatencyNanos += (latencyNanos - longLatencyNanos) * LONG_ALPHA;
+        // Once a slowdown is over, let the baseline come back down rather than wait for the long average
+        if (longLatencyNanos > 2 * shortLatencyNanos) {
+            longLatencyNanos *= 0.95;
+        }
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatencyNanos / shortLatencyNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minimumLimit, Math.min(maximumLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
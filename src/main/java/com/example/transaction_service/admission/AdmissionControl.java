@@ -0,0 +1,151 @@
+package com.example.transaction_service.admission;
+
+import com.example.transaction_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission in front of the controllers. A request first takes a token from its account's bucket, so one busy
+ * account is turned away before it occupies anything shared, and then a slot under the global concurrency
+ * limit, which shrinks as request latency rises. Either refusal is a {@link TooManyRequestsException}, answered
+ * with 429 and a Retry-After header.
+ *
+ * <p>Controllers wrap the work in the returned permit, e.g.
+ * {@code try (AdmissionControl.Permit ignored = admissionControl.admit(accountId)) { ... }}; closing it frees the
+ * slot and reports how long it was held, which on these endpoints is mostly time spent waiting for and using a
+ * database connection.
+ *
+ * <p>Bulk ingest is admitted by {@link #admitBulk()} under a separate fixed limit instead. An upload holds its
+ * slot for as long as the body takes to stream, often minutes, and that duration says nothing about the
+ * database: as a latency sample it would collapse the global limit and inflate its baseline.
+ */
+@Component
+public class AdmissionControl {
+    private static final Permit NOOP = () -> {
+    };
+    // Slots free up within a request's latency, well under the one-second granularity of Retry-After
+    private static final long BUSY_RETRY_AFTER_SECONDS = 1;
+    // A bulk slot is held for a whole upload
+    private static final long BULK_RETRY_AFTER_SECONDS = 10;
+
+    private final boolean enabled;
+    private final AccountRateLimiter accountRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter bulkLimiter;
+    private final LongSupplier nanoClock;
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+    private final Counter bulkLimited;
+
+    @Autowired
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${transaction.admission.enabled:false}") boolean enabled,
+                            @Value("${transaction.admission.account.permits-per-second:50}") double permitsPerSecond,
+                            @Value("${transaction.admission.account.burst:100}") int burst,
+                            @Value("${transaction.admission.account.maximum-buckets:100000}") int maximumBuckets,
+                            @Value("${transaction.admission.concurrency.initial-limit:20}") int initialLimit,
+                            @Value("${transaction.admission.concurrency.minimum-limit:4}") int minimumLimit,
+                            @Value("${transaction.admission.concurrency.maximum-limit:200}") int maximumLimit,
+                            @Value("${transaction.admission.bulk.maximum-concurrent:2}") int bulkLimit) {
+        this(meterRegistry, enabled, new AccountRateLimiter(permitsPerSecond, burst, maximumBuckets, System::nanoTime),
+                new AdaptiveConcurrencyLimiter(initialLimit, minimumLimit, maximumLimit),
+                new AdaptiveConcurrencyLimiter(bulkLimit, bulkLimit, bulkLimit), System::nanoTime);
+    }
+
+    public AdmissionControl(MeterRegistry meterRegistry, boolean enabled, AccountRateLimiter accountRateLimiter,
+                            AdaptiveConcurrencyLimiter concurrencyLimiter, AdaptiveConcurrencyLimiter bulkLimiter,
+                            LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.accountRateLimiter = accountRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bulkLimiter = bulkLimiter;
+        this.nanoClock = nanoClock;
+        this.rateLimited = Counter.builder("admission.rejected").tag("reason", "account-rate")
+                .register(meterRegistry);
+        this.concurrencyLimited = Counter.builder("admission.rejected").tag("reason", "concurrency")
+                .register(meterRegistry);
+        this.bulkLimited = Counter.builder("admission.rejected").tag("reason", "bulk-concurrency")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("admission.account.buckets", accountRateLimiter, AccountRateLimiter::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request for the account, or for no particular account when {@code accountId} is null.
+     *
+     * @throws TooManyRequestsException if the account is over its rate or the service is at its limit
+     */
+    public Permit admit(Long accountId) {
+        if (!enabled) {
+            return NOOP;
+        }
+        if (accountId != null) {
+            long waitNanos = accountRateLimiter.tryAcquire(accountId);
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                throw new TooManyRequestsException("Too many requests for account " + accountId + ".",
+                        Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            }
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyLimited.increment();
+            throw new TooManyRequestsException("Service is busy, please retry.", BUSY_RETRY_AFTER_SECONDS);
+        }
+        long start = nanoClock.getAsLong();
+        return new Permit() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    concurrencyLimiter.release(nanoClock.getAsLong() - start);
+                }
+            }
+        };
+    }
+
+    /**
+     * Admits a bulk upload under the bulk limit. Its slot is not counted against the global limit and its
+     * duration is not sampled.
+     *
+     * @throws TooManyRequestsException if the maximum number of uploads is already running
+     */
+    public Permit admitBulk() {
+        if (!enabled) {
+            return NOOP;
+        }
+        if (!bulkLimiter.tryAcquire()) {
+            bulkLimited.increment();
+            throw new TooManyRequestsException("Too many bulk uploads in progress, please retry.",
+                    BULK_RETRY_AFTER_SECONDS);
+        }
+        return new Permit() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    bulkLimiter.release();
+                }
+            }
+        };
+    }
+
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.transaction_service.cache;
+
+import com.example.transaction_service.entity.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of accounts, shared by AccountService and TransactionService. Accounts never change
+ * after creation, so entries are only ever added by createAccount or a repository load and removed by
+ * size eviction. Hit, miss and eviction counts are published with Micrometer's cache meter names.
+ *
+ * <p>Lookups are a ConcurrentHashMap read plus a reference bit, so they never take a lock. Eviction is CLOCK,
+ * an approximation of LRU: the hand walks the entries in insertion order, gives a referenced entry a second
+ * chance by clearing its bit and evicts the first one that was not used since the hand last passed. One
+ * thread sweeps at a time; a ReentrantLock rather than synchronized keeps virtual threads from pinning
+ * their carrier.
+ */
+@Component
+public class AccountCache {
+    private static final String CACHE_NAME = "accounts";
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> hand = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maximumSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${transaction.account-cache.maximum-size:10000}") int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.size", this, AccountCache::size).tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached account, or {@code null} when it has to be loaded from the repository.
+     */
+    public Account get(Long accountId) {
+        Entry entry = entries.get(accountId);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        // Only written when clear, so hot entries do not bounce their cache line between cores
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.account;
+    }
+
+    public void put(Account account) {
+        Long accountId = account.getAccountId();
+        if (entries.putIfAbsent(accountId, new Entry(account)) == null) {
+            hand.offer(accountId);
+            if (entries.size() > maximumSize) {
+                evict();
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // A thread that finds a sweep running leaves the excess to it, as the sweep rechecks the size
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (entries.size() > maximumSize) {
+                Long accountId = hand.poll();
+                if (accountId == null) {
+                    return;
+                }
+                Entry entry = entries.get(accountId);
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    hand.offer(accountId);
+                } else {
+                    entries.remove(accountId);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class Entry {
+        private final Account account;
+        private volatile boolean referenced;
+
+        private Entry(Account account) {
+            this.account = account;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.transaction_service.cache;
+
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory index of recent Idempotency-Key responses, in front of the idempotency_keys table.
+ * Lookups are a ConcurrentHashMap read and never take a lock; a hit returns the stored response object
+ * without allocating. Every entry has the same TTL, so a queue in insertion order is also in expiry order:
+ * a put drops expired entries from its head and evicts the oldest once the size limit is reached. One
+ * thread sweeps at a time, as in AccountCache.
+ */
+@Component
+public class IdempotencyCache {
+    private static final String CACHE_NAME = "idempotency-keys";
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // May still hold entries that were replaced or dropped on read; the sweep skips them
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maximumSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public IdempotencyCache(MeterRegistry meterRegistry,
+                            @Value("${transaction.idempotency.maximum-size:100000}") int maximumSize,
+                            @Value("${transaction.idempotency.ttl:24h}") Duration ttl) {
+        this(meterRegistry, maximumSize, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyCache(MeterRegistry meterRegistry, int maximumSize, Duration ttl, Clock clock) {
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.size", this, IdempotencyCache::size).tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached entry for the key, or {@code null} when it is unknown or has expired.
+     */
+    public Entry get(String idempotencyKey) {
+        Entry entry = entries.get(idempotencyKey);
+        if (entry != null && entry.expiresAt <= clock.millis()) {
+            // Only the thread that removes it counts the eviction
+            if (entries.remove(idempotencyKey, entry)) {
+                evictions.increment();
+            }
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    public void put(String idempotencyKey, String operation, String requestHash, TransactionResponseDTO response) {
+        long now = clock.millis();
+        Entry entry = new Entry(idempotencyKey, operation, requestHash, response, now + ttlMillis);
+        entries.put(idempotencyKey, entry);
+        insertionOrder.offer(entry);
+
+        Entry eldest = insertionOrder.peek();
+        if (entries.size() > maximumSize || (eldest != null && eldest.expiresAt <= now)) {
+            evict(now);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // A thread that finds a sweep running leaves the work to it, as the sweep rechecks the head and the size
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Entry eldest;
+            while ((eldest = insertionOrder.peek()) != null
+                    && (eldest.expiresAt <= now || entries.size() > maximumSize)) {
+                insertionOrder.poll();
+                if (entries.remove(eldest.idempotencyKey, eldest)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public static final class Entry {
+        private final String idempotencyKey;
+        private final String operation;
+        private final String requestHash;
+        private final TransactionResponseDTO response;
+        private final long expiresAt;
+
+        private Entry(String idempotencyKey, String operation, String requestHash, TransactionResponseDTO response,
+                      long expiresAt) {
+            this.idempotencyKey = idempotencyKey;
+            this.operation = operation;
+            this.requestHash = requestHash;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getRequestHash() {
+            return requestHash;
+        }
+
+        public TransactionResponseDTO getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.transaction_service.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, fixed-size set of account ids that are known to exist. Accounts are never deleted, so once an id
+ * has been created or loaded the write path can link transactions to it by reference instead of selecting it.
+ * Ids are hashed into an open-addressing table of {@code capacity} slots (8 bytes each, rounded up to a power
+ * of two), so memory stays bounded whatever the id layout. When every slot an id may probe is taken, the id
+ * replaces its home slot; a forgotten id only costs one lookup.
+ */
+@Component
+public class KnownAccountIds {
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray slots;
+    private final int shift;
+
+    public KnownAccountIds(@Value("${transaction.known-accounts.capacity:1048576}") int capacity) {
+        if (capacity < MAX_PROBES || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Known account capacity must be between " + MAX_PROBES
+                    + " and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(size);
+    }
+
+    public void add(long accountId) {
+        long value = encode(accountId);
+        int home = home(value);
+        int mask = slots.length() - 1;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (home + probe) & mask;
+            long current = slots.get(slot);
+            if (current == value) {
+                return;
+            }
+            if (current == EMPTY) {
+                if (slots.compareAndSet(slot, EMPTY, value)) {
+                    return;
+                }
+                if (slots.get(slot) == value) {
+                    return;
+                }
+            }
+        }
+        slots.set(home, value);
+    }
+
+    public boolean contains(long accountId) {
+        long value = encode(accountId);
+        int home = home(value);
+        int mask = slots.length() - 1;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long current = slots.get((home + probe) & mask);
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    // Account ids are never negative, so shifting by one keeps 0 free to mark an empty slot
+    private static long encode(long accountId) {
+        return accountId + 1;
+    }
+
+    // Fibonacci hashing spreads the timestamp and sequence bits of generated ids over the whole table
+    private int home(long value) {
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
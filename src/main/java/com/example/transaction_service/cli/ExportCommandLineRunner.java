@@ -0,0 +1,78 @@
+package com.example.transaction_service.cli;
+
+import com.example.transaction_service.enums.ExportFormat;
+import com.example.transaction_service.enums.ExportTable;
+import com.example.transaction_service.service.TransactionExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line export mode. Started with {@code --transaction.export.file=<path>} the application writes
+ * the table to a gzip file and exits instead of serving requests, e.g.
+ * {@code java -jar app.jar --spring.main.web-application-type=none --transaction.export.table=installments
+ * --transaction.export.format=ndjson --transaction.export.file=installments.ndjson.gz}.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.export.file")
+public class ExportCommandLineRunner implements ApplicationRunner {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Logger logger = LoggerFactory.getLogger(ExportCommandLineRunner.class);
+
+    private final TransactionExportService transactionExportService;
+    private final ApplicationContext applicationContext;
+    private final Path file;
+    private final String table;
+    private final String format;
+
+    public ExportCommandLineRunner(TransactionExportService transactionExportService,
+                                   ApplicationContext applicationContext,
+                                   @Value("${transaction.export.file}") String file,
+                                   @Value("${transaction.export.table:transactions}") String table,
+                                   @Value("${transaction.export.format:csv}") String format) {
+        this.transactionExportService = transactionExportService;
+        this.applicationContext = applicationContext;
+        this.file = Path.of(file);
+        this.table = table;
+        this.format = format;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ExportTable exportTable = transactionExportService.resolveTable(table);
+        ExportFormat exportFormat = transactionExportService.resolveFormat(format);
+
+        // Write next to the target and rename, so a failed run never leaves a truncated export behind
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial),
+                BUFFER_SIZE), BUFFER_SIZE)) {
+            rows = transactionExportService.export(exportTable, exportFormat, out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(partial);
+            throw ex;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Wrote {} rows to {}", rows, file);
+
+        System.exit(SpringApplication.exit(applicationContext, (ExitCodeGenerator) () -> 0));
+    }
+}
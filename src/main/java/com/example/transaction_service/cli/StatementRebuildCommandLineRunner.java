@@ -0,0 +1,41 @@
+package com.example.transaction_service.cli;
+
+import com.example.transaction_service.service.DailyStatementRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line rebuild of the daily statement rollup. Started with {@code --transaction.statements.rebuild=true}
+ * the application recomputes daily_statements from the transactions table and exits instead of serving
+ * requests, e.g. {@code java -jar app.jar --spring.main.web-application-type=none
+ * --transaction.statements.rebuild=true}. Run it while no instance is writing transactions.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.statements.rebuild", havingValue = "true")
+public class StatementRebuildCommandLineRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(StatementRebuildCommandLineRunner.class);
+
+    private final DailyStatementRollup dailyStatementRollup;
+    private final ApplicationContext applicationContext;
+
+    public StatementRebuildCommandLineRunner(DailyStatementRollup dailyStatementRollup,
+                                             ApplicationContext applicationContext) {
+        this.dailyStatementRollup = dailyStatementRollup;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long rows = dailyStatementRollup.rebuild();
+        logger.info("Daily statements rebuilt with {} rows", rows);
+
+        System.exit(SpringApplication.exit(applicationContext, (ExitCodeGenerator) () -> 0));
+    }
+}
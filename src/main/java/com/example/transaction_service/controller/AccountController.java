@@ -1,30 +1,84 @@
 package com.example.transaction_service.controller;
 
+import com.example.transaction_service.admission.AdmissionControl;
 import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.response.AccountBalanceResponseDTO;
+import com.example.transaction_service.dto.response.StatementResponseDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.StatementService;
+import com.example.transaction_service.service.TransactionHistoryService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api")
 public class AccountController {
 
     private final AccountService accountService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final StatementService statementService;
+    private final AdmissionControl admissionControl;
 
-    public AccountController(final AccountService accountService) {
+    public AccountController(final AccountService accountService,
+                             final TransactionHistoryService transactionHistoryService,
+                             final StatementService statementService,
+                             final AdmissionControl admissionControl) {
         this.accountService = accountService;
+        this.transactionHistoryService = transactionHistoryService;
+        this.statementService = statementService;
+        this.admissionControl = admissionControl;
     }
 
     @PostMapping("/accounts")
     public ResponseEntity<Account> createAccount(@Valid @RequestBody final AccountRequestDTO accountDTO) {
-        return new ResponseEntity<>(accountService.createAccount(accountDTO), HttpStatus.CREATED);
+        try (AdmissionControl.Permit ignored = admissionControl.admit(null)) {
+            return new ResponseEntity<>(accountService.createAccount(accountDTO), HttpStatus.CREATED);
+        }
     }
 
     @GetMapping("/accounts/{accountId}")
     public ResponseEntity<Account> getAccountById(@PathVariable final Long accountId) {
-        return ResponseEntity.ok(accountService.getAccountById(accountId));
+        try (AdmissionControl.Permit ignored = admissionControl.admit(accountId)) {
+            return ResponseEntity.ok(accountService.getAccountById(accountId));
+        }
+    }
+
+    @GetMapping("/accounts/{accountId}/balance")
+    public ResponseEntity<AccountBalanceResponseDTO> getAccountBalance(@PathVariable final Long accountId) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(accountId)) {
+            return ResponseEntity.ok(accountService.getAccountBalance(accountId));
+        }
+    }
+
+    @GetMapping("/accounts/{accountId}/transactions")
+    public ResponseEntity<TransactionHistoryPageDTO> getAccountTransactions(
+            @PathVariable final Long accountId,
+            @RequestParam(required = false) final Integer operationTypeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer limit) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(accountId)) {
+            return ResponseEntity.ok(transactionHistoryService.getTransactions(accountId, operationTypeId, from, to,
+                    cursor, limit));
+        }
+    }
+
+    @GetMapping("/accounts/{accountId}/statements")
+    public ResponseEntity<StatementResponseDTO> getAccountStatement(
+            @PathVariable final Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(accountId)) {
+            return ResponseEntity.ok(statementService.getStatement(accountId, from, to));
+        }
     }
 }
@@ -0,0 +1,67 @@
+package com.example.transaction_service.controller;
+
+import com.example.transaction_service.enums.ExportFormat;
+import com.example.transaction_service.enums.ExportTable;
+import com.example.transaction_service.service.TransactionExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api")
+public class ExportController {
+    private static final String TIMEOUT_INTERCEPTOR = ExportController.class.getName() + ".timeout";
+
+    private final TransactionExportService transactionExportService;
+    private final long timeoutMillis;
+
+    public ExportController(TransactionExportService transactionExportService,
+                            @Value("${transaction.export.timeout:1h}") Duration timeout) {
+        this.transactionExportService = transactionExportService;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    // Table and format are checked before the body starts streaming, so bad input still gets a 400
+    @GetMapping("/exports/{table}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable final String table,
+                                                        @RequestParam(defaultValue = "csv") final String format,
+                                                        HttpServletRequest request) {
+        ExportTable exportTable = transactionExportService.resolveTable(table);
+        ExportFormat exportFormat = transactionExportService.resolveFormat(format);
+
+        // A whole-table export outlives the servlet's default async timeout, so it sets its own just before the
+        // body starts streaming
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TIMEOUT_INTERCEPTOR,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(timeoutMillis);
+                    }
+                });
+
+        StreamingResponseBody body = out -> transactionExportService.export(exportTable, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportTable.getName() + "." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -1,41 +1,134 @@
 package com.example.transaction_service.controller;
 
+import com.example.transaction_service.admission.AdmissionControl;
 import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
 import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResponseDTO;
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
 import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.service.IdempotencyService;
+import com.example.transaction_service.service.InstallmentPaymentBatcher;
+import com.example.transaction_service.service.InstallmentPaymentLocks;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.service.TransactionBatchService;
 import com.example.transaction_service.service.TransactionService;
-import com.example.transaction_service.util.ApiResponse;
+import com.example.transaction_service.service.WriteBehindTransactionService;
+import com.example.transaction_service.sharding.ShardRouter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/api")
 public class TransactionController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final WriteBehindTransactionService writeBehindTransactionService;
+    private final InstallmentPaymentBatcher installmentPaymentBatcher;
+    private final InstallmentPaymentLocks installmentPaymentLocks;
+    private final IdempotencyService idempotencyService;
+    private final ShardRouter shardRouter;
+    private final InstallmentSummaryService installmentSummaryService;
+    private final AdmissionControl admissionControl;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionBatchService transactionBatchService,
+                                 WriteBehindTransactionService writeBehindTransactionService,
+                                 InstallmentPaymentBatcher installmentPaymentBatcher,
+                                 InstallmentPaymentLocks installmentPaymentLocks,
+                                 IdempotencyService idempotencyService, ShardRouter shardRouter,
+                                 InstallmentSummaryService installmentSummaryService,
+                                 AdmissionControl admissionControl) {
         this.transactionService = transactionService;
+        this.transactionBatchService = transactionBatchService;
+        this.writeBehindTransactionService = writeBehindTransactionService;
+        this.installmentPaymentBatcher = installmentPaymentBatcher;
+        this.installmentPaymentLocks = installmentPaymentLocks;
+        this.idempotencyService = idempotencyService;
+        this.shardRouter = shardRouter;
+        this.installmentSummaryService = installmentSummaryService;
+        this.admissionControl = admissionControl;
     }
 
     @PostMapping("/transactions")
-    public ResponseEntity<TransactionResponseDTO> createTransaction(@Valid @RequestBody final TransactionRequestDTO transactionDTO) {
-        return new ResponseEntity<>(transactionService.createTransaction(transactionDTO), HttpStatus.CREATED);
+    public ResponseEntity<TransactionResponseDTO> createTransaction(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @Valid @RequestBody final TransactionRequestDTO transactionDTO) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(transactionDTO.getAccountId())) {
+            if (idempotencyKey == null) {
+                return new ResponseEntity<>(create(transactionDTO), HttpStatus.CREATED);
+            }
+            // The key is recorded on the account's shard, in the same database transaction as the write. Never
+            // write-behind: a journaled entry is not part of that transaction, so a rollback would leave it behind
+            try (ShardRouter.Binding binding = shardRouter.bindAccount(transactionDTO.getAccountId())) {
+                return new ResponseEntity<>(idempotencyService.execute(idempotencyKey,
+                        IdempotencyService.CREATE_TRANSACTION, transactionDTO,
+                        () -> transactionService.createTransaction(transactionDTO)), HttpStatus.CREATED);
+            }
+        }
+    }
+
+    private TransactionResponseDTO create(TransactionRequestDTO transactionDTO) {
+        if (writeBehindTransactionService.isEnabled()) {
+            return writeBehindTransactionService.createTransaction(transactionDTO);
+        }
+        return transactionService.createTransaction(transactionDTO);
+    }
+
+    // The body is read as a stream (JSON array or NDJSON) rather than bound up front
+    @PostMapping(value = "/transactions/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchTransactionResponseDTO> createTransactionsBatch(final HttpServletRequest request)
+            throws IOException {
+        // Rows may belong to any number of accounts, and an upload can run for minutes: it gets a bulk slot
+        try (AdmissionControl.Permit ignored = admissionControl.admitBulk()) {
+            return ResponseEntity.ok(transactionBatchService.ingest(request.getInputStream()));
+        }
     }
 
     @PostMapping("/transactions/installments/pay")
-    public void payInstallment(@Valid @RequestBody final PayInstallmentRequestDTO payInstallmentRequestDTO) {
-        transactionService.payInstallmentByNumber(payInstallmentRequestDTO);
+    public ResponseEntity<TransactionResponseDTO> payInstallment(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @Valid @RequestBody final PayInstallmentRequestDTO payInstallmentRequestDTO) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(payInstallmentRequestDTO.getAccountId())) {
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(pay(payInstallmentRequestDTO));
+            }
+            // Not batched: the key must commit in the same database transaction as the payment. That transaction
+            // is IdempotencyService's, so the purchase's payment stripe is taken here, before it starts
+            try (ShardRouter.Binding binding = shardRouter.bindAccount(payInstallmentRequestDTO.getAccountId());
+                 InstallmentPaymentLocks.Stripe stripe =
+                         installmentPaymentLocks.lock(payInstallmentRequestDTO.getTransactionId())) {
+                return ResponseEntity.ok(idempotencyService.execute(idempotencyKey,
+                        IdempotencyService.PAY_INSTALLMENT, payInstallmentRequestDTO,
+                        () -> transactionService.payInstallmentByNumber(payInstallmentRequestDTO)));
+            }
+        }
+    }
 
-        ApiResponse<Void> response = new ApiResponse<>(
-                "Installment payment successful",
-                null
-        );
+    private TransactionResponseDTO pay(PayInstallmentRequestDTO payInstallmentRequestDTO) {
+        if (installmentPaymentBatcher.isEnabled()) {
+            return installmentPaymentBatcher.payInstallmentByNumber(payInstallmentRequestDTO);
+        }
+        return transactionService.payInstallmentByNumber(payInstallmentRequestDTO);
+    }
 
-        new ResponseEntity<>(response, HttpStatus.OK);
+    @GetMapping("/transactions/{transactionId}/installments/summary")
+    public ResponseEntity<InstallmentSummaryResponseDTO> getInstallmentSummary(@PathVariable final Long transactionId) {
+        try (AdmissionControl.Permit ignored = admissionControl.admit(null)) {
+            return ResponseEntity.ok(installmentSummaryService.getSummary(transactionId));
+        }
     }
 }
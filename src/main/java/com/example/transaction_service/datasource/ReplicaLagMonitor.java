@@ -0,0 +1,94 @@
+package com.example.transaction_service.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Measures how far the replica is behind the primary with a heartbeat row.
+ *
+ * <p>Each check reads the heartbeat the replica has applied, then writes the current time to the
+ * primary. The replica's data is at most {@code now - heartbeat} old, so that is the staleness reported;
+ * with a healthy replica it stays close to the heartbeat interval, which therefore has to be well below
+ * the tolerance. The replica is usable only while the last check succeeded within the tolerance, and is
+ * not used at all until the first check has run.
+ */
+public class ReplicaLagMonitor implements SmartInitializingSingleton {
+    private static final int HEARTBEAT_ID = 1;
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxStalenessMillis;
+    private final Clock clock;
+    private volatile long stalenessMillis = -1;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, MeterRegistry meterRegistry,
+                             long maxStalenessMillis, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.clock = clock;
+        Gauge.builder("datasource.replica.staleness", this, ReplicaLagMonitor::getStalenessMillis)
+                .description("Age of the newest heartbeat seen on the replica, -1 when it cannot be read")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getStalenessMillis() {
+        return stalenessMillis;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.datasource.replica.heartbeat-interval-ms:1000}",
+            initialDelayString = "${transaction.datasource.replica.heartbeat-interval-ms:1000}")
+    public void check() {
+        long now = clock.millis();
+        boolean usable;
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                    Long.class, HEARTBEAT_ID);
+            stalenessMillis = beats.isEmpty() ? -1 : Math.max(0, now - beats.get(0));
+            usable = !beats.isEmpty() && stalenessMillis <= maxStalenessMillis;
+        } catch (DataAccessException ex) {
+            stalenessMillis = -1;
+            usable = false;
+            logger.debug("Replica heartbeat could not be read: {}", ex.getMessage());
+        }
+        if (usable != replicaUsable) {
+            logger.warn(usable ? "Read replica is within {} ms of the primary, routing reads to it"
+                    : "Read replica is more than {} ms behind the primary or unreachable, routing reads to the primary",
+                    maxStalenessMillis);
+        }
+        replicaUsable = usable;
+
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (DataAccessException ex) {
+            logger.error("Replica heartbeat could not be written: {}", ex.getMessage());
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.example.transaction_service.dto.request;
 
-import java.math.BigDecimal;
+import com.example.transaction_service.money.Money;
 
 public class InstallmentDTO {
-    private BigDecimal amount;
+    private Money amount;
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
@@ -1,10 +1,9 @@
 package com.example.transaction_service.dto.request;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.PositiveAmount;
 import jakarta.validation.constraints.NotNull;
 
-import java.math.BigDecimal;
-
 public class PayInstallmentRequestDTO {
 
     @NotNull(message = "Transaction ID is required")
@@ -14,8 +13,8 @@ public class PayInstallmentRequestDTO {
     private Integer installmentNumber;
 
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
-    private BigDecimal amount;
+    @PositiveAmount
+    private Money amount;
 
     @NotNull(message = "Account ID is required")
     private Long accountId;
@@ -45,11 +44,11 @@ public class PayInstallmentRequestDTO {
         this.installmentNumber = installmentNumber;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
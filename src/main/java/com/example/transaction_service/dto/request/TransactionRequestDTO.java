@@ -1,10 +1,10 @@
 package com.example.transaction_service.dto.request;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.PositiveAmount;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 public class TransactionRequestDTO {
@@ -16,8 +16,8 @@ public class TransactionRequestDTO {
     private Integer operationTypeId;
 
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
-    private BigDecimal amount;
+    @PositiveAmount
+    private Money amount;
 
     private List<InstallmentDTO> installments;
 
@@ -38,11 +38,11 @@ public class TransactionRequestDTO {
         this.operationTypeId = operationTypeId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
     public List<InstallmentDTO> getInstallments() {
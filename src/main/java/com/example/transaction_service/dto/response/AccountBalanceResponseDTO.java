@@ -0,0 +1,30 @@
+package com.example.transaction_service.dto.response;
+
+import java.math.BigDecimal;
+
+public class AccountBalanceResponseDTO {
+    private Long accountId;
+    private BigDecimal balance;
+
+    public AccountBalanceResponseDTO(Long accountId, BigDecimal balance) {
+        this.accountId = accountId;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
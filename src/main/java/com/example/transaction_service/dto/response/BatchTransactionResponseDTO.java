@@ -0,0 +1,43 @@
+package com.example.transaction_service.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk upload: how many rows were received and created, and the rows that failed. Created rows
+ * are only counted, so the response stays small however large the upload was.
+ */
+public class BatchTransactionResponseDTO {
+    private int received;
+    private int created;
+    private final List<BatchTransactionResultDTO> failures = new ArrayList<>();
+
+    public void addCreated() {
+        created++;
+    }
+
+    public void addFailure(BatchTransactionResultDTO failure) {
+        failures.add(failure);
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failures.size();
+    }
+
+    public List<BatchTransactionResultDTO> getFailures() {
+        return failures;
+    }
+}
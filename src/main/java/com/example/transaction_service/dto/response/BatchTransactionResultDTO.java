@@ -0,0 +1,30 @@
+package com.example.transaction_service.dto.response;
+
+public class BatchTransactionResultDTO {
+    private int index;
+    private String error;
+
+    public static BatchTransactionResultDTO failed(int index, String error) {
+        BatchTransactionResultDTO result = new BatchTransactionResultDTO();
+        result.setIndex(index);
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.transaction_service.dto.response;
+
+import java.math.BigDecimal;
+
+public class InstallmentSummaryResponseDTO {
+    private Long transactionId;
+    private Integer remainingCount;
+    private BigDecimal remainingAmount;
+    private Integer nextInstallmentNumber;
+
+    public InstallmentSummaryResponseDTO(Long transactionId, Integer remainingCount, BigDecimal remainingAmount,
+                                         Integer nextInstallmentNumber) {
+        this.transactionId = transactionId;
+        this.remainingCount = remainingCount;
+        this.remainingAmount = remainingAmount;
+        this.nextInstallmentNumber = nextInstallmentNumber;
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Integer getRemainingCount() {
+        return remainingCount;
+    }
+
+    public void setRemainingCount(Integer remainingCount) {
+        this.remainingCount = remainingCount;
+    }
+
+    public BigDecimal getRemainingAmount() {
+        return remainingAmount;
+    }
+
+    public void setRemainingAmount(BigDecimal remainingAmount) {
+        this.remainingAmount = remainingAmount;
+    }
+
+    public Integer getNextInstallmentNumber() {
+        return nextInstallmentNumber;
+    }
+
+    public void setNextInstallmentNumber(Integer nextInstallmentNumber) {
+        this.nextInstallmentNumber = nextInstallmentNumber;
+    }
+}
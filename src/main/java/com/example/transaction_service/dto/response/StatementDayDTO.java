@@ -0,0 +1,44 @@
+package com.example.transaction_service.dto.response;
+
+import com.example.transaction_service.money.Money;
+
+import java.time.LocalDate;
+
+public class StatementDayDTO {
+    private final LocalDate date;
+    private final Integer operationTypeId;
+    private final long transactionCount;
+    private final Money debits;
+    private final Money credits;
+
+    public StatementDayDTO(LocalDate date, Integer operationTypeId, long transactionCount, Money debits,
+                           Money credits) {
+        this.date = date;
+        this.operationTypeId = operationTypeId;
+        this.transactionCount = transactionCount;
+        this.debits = debits;
+        this.credits = credits;
+    }
+
+    // Getters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Integer getOperationTypeId() {
+        return operationTypeId;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    // Sum of the negative amounts, so it is zero or negative
+    public Money getDebits() {
+        return debits;
+    }
+
+    public Money getCredits() {
+        return credits;
+    }
+}
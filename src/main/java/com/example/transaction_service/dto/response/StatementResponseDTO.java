@@ -0,0 +1,62 @@
+package com.example.transaction_service.dto.response;
+
+import com.example.transaction_service.money.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class StatementResponseDTO {
+    private final Long accountId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long transactionCount;
+    private final Money debits;
+    private final Money credits;
+    private final List<StatementDayDTO> days;
+
+    public StatementResponseDTO(Long accountId, LocalDate from, LocalDate to, long transactionCount, Money debits,
+                                Money credits, List<StatementDayDTO> days) {
+        this.accountId = accountId;
+        this.from = from;
+        this.to = to;
+        this.transactionCount = transactionCount;
+        this.debits = debits;
+        this.credits = credits;
+        this.days = days;
+    }
+
+    // Getters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public Money getDebits() {
+        return debits;
+    }
+
+    public Money getCredits() {
+        return credits;
+    }
+
+    // Net change over the period
+    public Money getNet() {
+        return debits.plus(credits);
+    }
+
+    // One entry per day and operation type that had transactions, in date order
+    public List<StatementDayDTO> getDays() {
+        return days;
+    }
+}
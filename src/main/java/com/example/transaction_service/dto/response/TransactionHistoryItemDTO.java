@@ -0,0 +1,42 @@
+package com.example.transaction_service.dto.response;
+
+import com.example.transaction_service.money.Money;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * One row of an account's transaction history. Built directly by the history query (a JPQL constructor
+ * expression), so no Transaction or Account entity is loaded.
+ */
+public class TransactionHistoryItemDTO {
+    private final Long transactionId;
+    private final Integer operationTypeId;
+    private final Money amount;
+    private final Instant eventDate;
+
+    public TransactionHistoryItemDTO(Long transactionId, Integer operationTypeId, Money amount,
+                                     Timestamp eventDate) {
+        this.transactionId = transactionId;
+        this.operationTypeId = operationTypeId;
+        this.amount = amount;
+        this.eventDate = eventDate.toInstant();
+    }
+
+    // Getters
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public Integer getOperationTypeId() {
+        return operationTypeId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Instant getEventDate() {
+        return eventDate;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.transaction_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionHistoryPageDTO {
+    private final List<TransactionHistoryItemDTO> transactions;
+    private final String nextCursor;
+
+    public TransactionHistoryPageDTO(List<TransactionHistoryItemDTO> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<TransactionHistoryItemDTO> getTransactions() {
+        return transactions;
+    }
+
+    // Pass back as the cursor parameter to fetch the next page; null on the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
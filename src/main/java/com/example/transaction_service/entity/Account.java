@@ -1,13 +1,15 @@
 package com.example.transaction_service.entity;
 
+import com.example.transaction_service.id.SnowflakeId;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "accounts")
 public class Account {
 
+    // Generated in process; the id carries the shard the account is created on
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long accountId;
 
     @Column(name = "document_number", unique = true, nullable = false)
@@ -0,0 +1,141 @@
+package com.example.transaction_service.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Totals of one account's transactions of one operation type on one UTC day, kept up to date in the same
+ * database transaction as the transactions themselves so a statement reads one row per day and type.
+ * Debits are the sum of the negative amounts and credits of the positive ones, both signed as stored.
+ */
+@Entity
+@Table(name = "daily_statements")
+@IdClass(DailyStatement.Key.class)
+public class DailyStatement {
+
+    // Primary key order makes a statement for a date range a single range scan
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "statement_date")
+    private LocalDate statementDate;
+
+    @Id
+    @Column(name = "operation_type_id")
+    private Integer operationTypeId;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false)
+    private BigDecimal debitTotal;
+
+    @Column(nullable = false)
+    private BigDecimal creditTotal;
+
+    // Also lets Spring Data tell a new row (null version) from an existing one without a SELECT
+    @Version
+    private Long version;
+
+    public static DailyStatement empty(Key key) {
+        DailyStatement statement = new DailyStatement();
+        statement.accountId = key.accountId;
+        statement.statementDate = key.statementDate;
+        statement.operationTypeId = key.operationTypeId;
+        statement.transactionCount = 0L;
+        statement.debitTotal = BigDecimal.ZERO;
+        statement.creditTotal = BigDecimal.ZERO;
+        return statement;
+    }
+
+    // Getters and setters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getStatementDate() {
+        return statementDate;
+    }
+
+    public Integer getOperationTypeId() {
+        return operationTypeId;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debitTotal;
+    }
+
+    public void setDebitTotal(BigDecimal debitTotal) {
+        this.debitTotal = debitTotal;
+    }
+
+    public BigDecimal getCreditTotal() {
+        return creditTotal;
+    }
+
+    public void setCreditTotal(BigDecimal creditTotal) {
+        this.creditTotal = creditTotal;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate statementDate;
+        private Integer operationTypeId;
+
+        public Key() {
+        }
+
+        public Key(Long accountId, LocalDate statementDate, Integer operationTypeId) {
+            this.accountId = accountId;
+            this.statementDate = statementDate;
+            this.operationTypeId = operationTypeId;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public LocalDate getStatementDate() {
+            return statementDate;
+        }
+
+        public Integer getOperationTypeId() {
+            return operationTypeId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof Key key && Objects.equals(accountId, key.accountId)
+                    && Objects.equals(statementDate, key.statementDate)
+                    && Objects.equals(operationTypeId, key.operationTypeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, statementDate, operationTypeId);
+        }
+
+        @Override
+        public String toString() {
+            return accountId + "/" + statementDate + "/" + operationTypeId;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.transaction_service.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Durable record of a request made with an Idempotency-Key header and the response it produced. The
+ * unique key column is what stops two concurrent requests with the same key from both committing.
+ * The request hash lets a retry be told apart from a different request that reuses the key.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // Expired keys are purged by creation time
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", unique = true, nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 32)
+    private String operation;
+
+    // SHA-256 of the request, hex encoded; null on rows written before it was recorded
+    @Column(length = 64)
+    private String requestHash;
+
+    private Long transactionId;
+
+    private String message;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
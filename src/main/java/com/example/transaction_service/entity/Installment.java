@@ -1,17 +1,20 @@
 package com.example.transaction_service.entity;
 
 import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.id.SnowflakeId;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.MoneyConverter;
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "installments")
 public class Installment {
 
+    // Generated in process so a schedule can be flushed as one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @ManyToOne
@@ -20,29 +23,63 @@ public class Installment {
 
     private Integer installmentNumber;
 
-    private BigDecimal installmentAmount;
+    @Convert(converter = MoneyConverter.class)
+    private Money installmentAmount;
 
     private LocalDate dueDate;
 
     @Enumerated(EnumType.STRING)
     private InstallmentStatus status;  // PENDING, PAID, etc.
 
+    @Version
+    private Long version;
+
     // Getters and setters
-    public BigDecimal getInstallmentAmount() {
+    public Long getId() {
+        return id;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(Transaction transaction) {
+        this.transaction = transaction;
+    }
+
+    public Integer getInstallmentNumber() {
+        return installmentNumber;
+    }
+
+    public void setInstallmentNumber(Integer installmentNumber) {
+        this.installmentNumber = installmentNumber;
+    }
+
+    public Money getInstallmentAmount() {
         return installmentAmount;
     }
 
-    public void setStatus(InstallmentStatus status) {
-        this.status = status;
+    public void setInstallmentAmount(Money installmentAmount) {
+        this.installmentAmount = installmentAmount;
     }
 
-    public void setTransaction(Transaction savedTransaction) {
+    public LocalDate getDueDate() {
+        return dueDate;
     }
 
-    public void setInstallmentNumber(int installmentNumber) {
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
     }
 
-    public void setInstallmentAmount(BigDecimal amount) {
+    public InstallmentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(InstallmentStatus status) {
+        this.status = status;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.transaction_service.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * What is left to pay on a purchase with installments, kept up to date in the same database transaction
+ * as the purchase and each payment so it can be read as one row.
+ */
+@Entity
+@Table(name = "installment_summaries")
+public class InstallmentSummary {
+
+    // The purchase transaction's id, assigned rather than generated
+    @Id
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private Integer remainingCount;
+
+    @Column(nullable = false)
+    private BigDecimal remainingAmount;
+
+    // Lowest unpaid installment number; null once everything is paid
+    private Integer nextInstallmentNumber;
+
+    // Also lets Spring Data tell a new summary (null version) from an existing one without a SELECT
+    @Version
+    private Long version;
+
+    // Getters and setters
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Integer getRemainingCount() {
+        return remainingCount;
+    }
+
+    public void setRemainingCount(Integer remainingCount) {
+        this.remainingCount = remainingCount;
+    }
+
+    public BigDecimal getRemainingAmount() {
+        return remainingAmount;
+    }
+
+    public void setRemainingAmount(BigDecimal remainingAmount) {
+        this.remainingAmount = remainingAmount;
+    }
+
+    public Integer getNextInstallmentNumber() {
+        return nextInstallmentNumber;
+    }
+
+    public void setNextInstallmentNumber(Integer nextInstallmentNumber) {
+        this.nextInstallmentNumber = nextInstallmentNumber;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.transaction_service.entity;
+
+import com.example.transaction_service.id.SnowflakeId;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.MoneyConverter;
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+
+/**
+ * A saved transaction waiting to be published to downstream consumers. Written in the same database
+ * transaction as the transaction row, and deleted by the outbox relay once the sink has accepted it.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    // Time ordered, so the relay pages through pending events in roughly commit order with id > cursor
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "operation_type_id", nullable = false)
+    private Integer operationTypeId;
+
+    @Column(name = "amount", nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Column(name = "event_date", nullable = false)
+    private Timestamp eventDate;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+
+    public static OutboxEvent of(Long transactionId, Long accountId, Integer operationTypeId, Money amount,
+                                 Timestamp eventDate) {
+        OutboxEvent event = new OutboxEvent();
+        event.transactionId = transactionId;
+        event.accountId = accountId;
+        event.operationTypeId = operationTypeId;
+        event.amount = amount;
+        event.eventDate = eventDate;
+        return event;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Integer getOperationTypeId() {
+        return operationTypeId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Timestamp getEventDate() {
+        return eventDate;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.transaction_service.entity;
 
+import com.example.transaction_service.id.SnowflakeId;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.MoneyConverter;
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 
+// Both indexes end in (event_date, transaction_id) so history pages are read as a seek on the index
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_event", columnList = "account_id, event_date, transaction_id"),
+        @Index(name = "idx_transactions_account_type_event",
+                columnList = "account_id, operation_type_id, event_date, transaction_id")
+})
 public class Transaction {
 
+    // Generated in process, so inserts wait for the flush and go out as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long transactionId;
 
     @ManyToOne
@@ -21,7 +29,8 @@ public class Transaction {
     private Integer operationTypeId;
 
     @Column(name = "amount", nullable = false)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Column(name = "event_date", nullable = false)
     private Timestamp eventDate = new Timestamp(System.currentTimeMillis());
@@ -51,11 +60,19 @@ public class Transaction {
         this.operationTypeId = operationTypeId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
+
+    public Timestamp getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(Timestamp eventDate) {
+        this.eventDate = eventDate;
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.transaction_service.enums;
+
+import java.util.List;
+
+public enum ExportTable {
+    TRANSACTIONS("transactions",
+            List.of("transaction_id", "account_id", "operation_type_id", "amount", "event_date")),
+    INSTALLMENTS("installments",
+            List.of("id", "transaction_id", "installment_number", "installment_amount", "due_date", "status"));
+
+    private final String name;
+    private final List<String> columns;
+
+    ExportTable(String name, List<String> columns) {
+        this.name = name;
+        this.columns = columns;
+    }
+
+    public static ExportTable fromName(String name) {
+        for (ExportTable table : values()) {
+            if (table.name.equalsIgnoreCase(name)) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("Invalid export table: " + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // In the order of the values in each exported row
+    public List<String> getColumns() {
+        return columns;
+    }
+}
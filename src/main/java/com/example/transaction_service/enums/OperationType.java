@@ -1,32 +1,74 @@
 package com.example.transaction_service.enums;
 
+import com.example.transaction_service.money.Money;
 
 public enum OperationType {
-    NORMAL_PURCHASE(1, "Normal Purchase"),
-    PURCHASE_INSTALLMENTS(2, "Purchase with Installments"),
-    WITHDRAWAL(3, "Withdrawal"),
-    CREDIT_VOUCHER(4, "Credit Voucher"),
-    INSTALLMENT_PAYMENT(5, "Installment payment");
+    NORMAL_PURCHASE(1, "Normal Purchase", true, false),
+    PURCHASE_INSTALLMENTS(2, "Purchase with Installments", true, true),
+    WITHDRAWAL(3, "Withdrawal", true, false),
+    CREDIT_VOUCHER(4, "Credit Voucher", false, false),
+    INSTALLMENT_PAYMENT(5, "Installment payment", false, false);
+
+    // Dense table indexed by id, built once; values() would copy the constants array on every call
+    private static final OperationType[] BY_ID;
+
+    static {
+        int maxId = 0;
+        for (OperationType type : values()) {
+            maxId = Math.max(maxId, type.id);
+        }
+        BY_ID = new OperationType[maxId + 1];
+        for (OperationType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
 
     private final int id;
     private final String description;
+    private final boolean debit;
+    private final boolean requiresInstallments;
 
-    OperationType(int id, String description) {
+    OperationType(int id, String description, boolean debit, boolean requiresInstallments) {
         this.id = id;
         this.description = description;
+        this.debit = debit;
+        this.requiresInstallments = requiresInstallments;
     }
 
     public static OperationType fromId(int id) {
-        for (OperationType type : values()) {
-            if (type.id == id) {
-                return type;
-            }
+        OperationType type = find(id);
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid OperationType ID: " + id);
         }
-        throw new IllegalArgumentException("Invalid OperationType ID: " + id);
+        return type;
+    }
+
+    /**
+     * Returns the operation type with this id, or {@code null} if there is none. Allocation-free, for
+     * ingestion paths that reject bad rows without throwing.
+     */
+    public static OperationType find(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * Applies this type's sign to a positive amount: debits (purchases and withdrawals) are stored as
+     * negative amounts, credits as positive ones.
+     */
+    public Money applySign(Money amount) {
+        return debit ? amount.negate() : amount;
     }
 
     public int getId()
     {
         return id;
     }
+
+    public boolean isDebit() {
+        return debit;
+    }
+
+    public boolean requiresInstallments() {
+        return requiresInstallments;
+    }
 }
@@ -8,4 +8,13 @@ public class ErrorResponse {
         this.statusCode = statusCode;
         this.message = message;
     }
+
+    // Getters
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.transaction_service.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Whole seconds, as sent in the Retry-After header
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
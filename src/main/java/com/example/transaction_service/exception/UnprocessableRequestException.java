@@ -0,0 +1,7 @@
+package com.example.transaction_service.exception;
+
+public class UnprocessableRequestException extends RuntimeException {
+    public UnprocessableRequestException(String message) {
+        super(message);
+    }
+}
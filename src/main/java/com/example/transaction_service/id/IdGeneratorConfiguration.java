@@ -0,0 +1,18 @@
+package com.example.transaction_service.id;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Passes the SnowflakeIdGenerator bean to Hibernate, so entity ids and ids assigned outside JPA
+ * (write-behind) come from the same generator.
+ */
+@Configuration
+public class IdGeneratorConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer snowflakeIdGeneratorCustomizer(SnowflakeIdGenerator snowflakeIdGenerator) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.GENERATOR_SETTING, snowflakeIdGenerator);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.transaction_service.id;
+
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * On startup, moves the id generator past the highest id already stored on any shard. A clock that is behind
+ * the previous run (NTP step, restore on another host) then cannot make the generator repeat an id.
+ */
+@Component
+public class IdHighWaterMark implements SmartInitializingSingleton {
+    private static final List<String> ID_QUERIES = List.of(
+            "SELECT MAX(account_id) FROM accounts",
+            "SELECT MAX(transaction_id) FROM transactions",
+            "SELECT MAX(id) FROM installments");
+    private static final Logger logger = LoggerFactory.getLogger(IdHighWaterMark.class);
+
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public IdHighWaterMark(SnowflakeIdGenerator snowflakeIdGenerator, JdbcTemplate jdbcTemplate,
+                           ShardRouter shardRouter) {
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        shardRouter.forEachShard(shard -> {
+            for (String query : ID_QUERIES) {
+                Long highest = jdbcTemplate.queryForObject(query, Long.class);
+                if (highest != null) {
+                    snowflakeIdGenerator.advancePast(highest);
+                }
+            }
+        });
+        logger.debug("Id generator advanced past stored ids on {} shard(s)", shardRouter.getShardCount());
+    }
+}
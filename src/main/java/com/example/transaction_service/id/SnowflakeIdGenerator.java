@@ -0,0 +1,98 @@
+package com.example.transaction_service.id;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit ids generated in process, without a database round trip.
+ *
+ * <p>Layout, from the top: a zero sign bit, 41 bits of milliseconds since {@link #EPOCH}, 5 bits of shard,
+ * 5 bits of worker and a 12-bit sequence within the millisecond. Every running instance needs its own worker
+ * id ({@code transaction.id.worker-id}); the shard is the one the row is written to, so an account id names
+ * its shard.
+ *
+ * <p>The last issued millisecond and sequence are packed into one atomic long and advanced with a CAS, so
+ * callers never block. The packed value only moves forward: when the clock steps back, or more than 4096 ids
+ * are asked for in one millisecond, ids continue from the last value rather than repeating one.
+ */
+@Component
+public class SnowflakeIdGenerator {
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 5;
+    private static final int SHARD_BITS = 5;
+    private static final int TIMESTAMP_BITS = 41;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = WORKER_SHIFT + WORKER_BITS;
+    private static final int TIMESTAMP_SHIFT = SHARD_SHIFT + SHARD_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+
+    // Ids below this predate the generator (database sequences); no generated id is this small
+    public static final long FIRST_GENERATED_ID = 1L << 48;
+
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long workerBits;
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${transaction.id.worker-id:0}") int workerId) {
+        this(workerId, Clock.systemUTC());
+    }
+
+    public SnowflakeIdGenerator(int workerId, Clock clock) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + (MAX_WORKERS - 1) + ": " + workerId);
+        }
+        this.workerBits = (long) workerId << WORKER_SHIFT;
+        this.clock = clock;
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard out of range: " + shard);
+        }
+        long now = (clock.millis() - epochMillis) << SEQUENCE_BITS;
+        long next = last.accumulateAndGet(now, (previous, floor) -> Math.max(previous + 1, floor));
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Id timestamp overflow");
+        }
+        return timestamp << TIMESTAMP_SHIFT | (long) shard << SHARD_SHIFT | workerBits | next & SEQUENCE_MASK;
+    }
+
+    /**
+     * Makes sure every later id is greater than {@code id}, which was issued before this process started.
+     * Guards against a clock that is behind the previous run.
+     */
+    public void advancePast(long id) {
+        long issued = (id >>> TIMESTAMP_SHIFT) << SEQUENCE_BITS | id & SEQUENCE_MASK;
+        last.accumulateAndGet(issued, Math::max);
+    }
+
+    /**
+     * The shard encoded in a generated id; ids from before the generator belong to shard 0.
+     */
+    public static int shardOf(long id) {
+        if (id < FIRST_GENERATED_ID) {
+            return 0;
+        }
+        return (int) (id >>> SHARD_SHIFT) & (MAX_SHARDS - 1);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH.toEpochMilli());
+    }
+}
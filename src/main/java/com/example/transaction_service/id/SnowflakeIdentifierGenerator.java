@@ -0,0 +1,44 @@
+package com.example.transaction_service.id;
+
+import com.example.transaction_service.sharding.ShardRouter;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. Ids are taken from the application's SnowflakeIdGenerator, which
+ * IdGeneratorConfiguration hands to Hibernate as a setting, and carry the shard bound to the current thread.
+ * Since no database value is involved, Hibernate can hold the INSERT back and batch it.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+    public static final String GENERATOR_SETTING = "transaction.id.generator";
+
+    private final SnowflakeIdGenerator idGenerator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object generator = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(GENERATOR_SETTING);
+        if (!(generator instanceof SnowflakeIdGenerator snowflakeIdGenerator)) {
+            throw new IllegalStateException("Hibernate setting " + GENERATOR_SETTING + " must hold the SnowflakeIdGenerator");
+        }
+        this.idGenerator = snowflakeIdGenerator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Integer shard = ShardRouter.currentShard();
+        return idGenerator.nextId(shard == null ? 0 : shard);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.transaction_service.journal;
+
+import java.util.List;
+
+/**
+ * Durable journal entries read from the checkpoint onwards, and the offset to checkpoint once they are
+ * in the database.
+ */
+public class JournalBatch {
+    private final List<JournalEntry> entries;
+    private final int endOffset;
+
+    JournalBatch(List<JournalEntry> entries, int endOffset) {
+        this.entries = entries;
+        this.endOffset = endOffset;
+    }
+
+    public List<JournalEntry> getEntries() {
+        return entries;
+    }
+
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
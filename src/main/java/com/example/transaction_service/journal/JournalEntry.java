@@ -0,0 +1,72 @@
+package com.example.transaction_service.journal;
+
+import com.example.transaction_service.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A transaction accepted in write-behind mode. The id is assigned up front so the client gets it back
+ * before the row reaches the database.
+ */
+public class JournalEntry {
+    private final long transactionId;
+    private final long accountId;
+    private final int operationTypeId;
+    private final Money amount;
+    private final long eventTimeMillis;
+
+    public JournalEntry(long transactionId, long accountId, int operationTypeId, Money amount,
+                        long eventTimeMillis) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.operationTypeId = operationTypeId;
+        this.amount = amount;
+        this.eventTimeMillis = eventTimeMillis;
+    }
+
+    byte[] encode() {
+        byte[] amountBytes = amount.toString().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES * 3 + Integer.BYTES + Short.BYTES + amountBytes.length);
+        payload.putLong(transactionId)
+                .putLong(accountId)
+                .putInt(operationTypeId)
+                .putLong(eventTimeMillis)
+                .putShort((short) amountBytes.length)
+                .put(amountBytes);
+        return payload.array();
+    }
+
+    static JournalEntry decode(byte[] bytes) {
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        long transactionId = payload.getLong();
+        long accountId = payload.getLong();
+        int operationTypeId = payload.getInt();
+        long eventTimeMillis = payload.getLong();
+        byte[] amountBytes = new byte[payload.getShort()];
+        payload.get(amountBytes);
+        return new JournalEntry(transactionId, accountId, operationTypeId,
+                Money.parse(new String(amountBytes, StandardCharsets.US_ASCII)), eventTimeMillis);
+    }
+
+    // Getters
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public int getOperationTypeId() {
+        return operationTypeId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public long getEventTimeMillis() {
+        return eventTimeMillis;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.transaction_service.journal;
+
+import com.example.transaction_service.entity.OutboxEvent;
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.DailyStatementRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the journal into the transactions table in large JDBC batches. Entries are checkpointed only
+ * after their batch commits; on restart everything after the checkpoint is written again, and rows
+ * whose id is already present are skipped so replay is idempotent.
+ *
+ * <p>An entry the database rejects (a foreign key or constraint violation) fails its whole batch. The batch is
+ * then written again one entry per transaction, and the rejected entries are appended to a file of rejected
+ * entries and skipped, so the checkpoint keeps moving. Any other failure leaves the batch in the journal to be
+ * retried.
+ */
+public class JournalFlusher implements ApplicationListener<ApplicationReadyEvent>, Closeable {
+    private static final String INSERT_SQL = "insert into transactions "
+            + "(transaction_id, account_id, operation_type_id, amount, event_date) values (?, ?, ?, ?, ?)";
+    private static final String EXISTING_IDS_SQL =
+            "select transaction_id from transactions where transaction_id in (:ids)";
+    private static final Logger logger = LoggerFactory.getLogger(JournalFlusher.class);
+
+    private final TransactionJournal journal;
+    private final Path rejectedPath;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountBalanceLedger accountBalanceLedger;
+    private final TransactionOutbox transactionOutbox;
+    private final DailyStatementRollup dailyStatementRollup;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    public JournalFlusher(TransactionJournal journal, Path rejectedPath, JdbcTemplate jdbcTemplate,
+                          NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                          TransactionTemplate transactionTemplate, AccountBalanceLedger accountBalanceLedger,
+                          TransactionOutbox transactionOutbox, DailyStatementRollup dailyStatementRollup,
+                          int batchSize, long intervalMillis) {
+        this.journal = journal;
+        this.rejectedPath = rejectedPath;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.accountBalanceLedger = accountBalanceLedger;
+        this.transactionOutbox = transactionOutbox;
+        this.dailyStatementRollup = dailyStatementRollup;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Start draining (including any replay) only once the balance ledger has been rebuilt
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        executor.scheduleWithFixedDelay(this::drain, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void drain() {
+        try {
+            while (flushBatch() > 0) {
+                // keep going until the journal is empty
+            }
+        } catch (RuntimeException ex) {
+            // Entries stay in the journal and are retried on the next run
+            logger.error("Failed to flush transaction journal: {}", ex.getMessage(), ex);
+        }
+    }
+
+    int flushBatch() {
+        JournalBatch batch = journal.read(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch.getEntries()));
+        } catch (DataIntegrityViolationException ex) {
+            logger.warn("Journal batch rejected, writing its {} entries one at a time: {}",
+                    batch.getEntries().size(), ex.getMessage());
+            for (JournalEntry entry : batch.getEntries()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(entry)));
+                } catch (DataIntegrityViolationException rejected) {
+                    reject(entry, rejected);
+                }
+            }
+        }
+
+        journal.checkpoint(batch.getEndOffset());
+        logger.debug("Flushed {} journaled transactions", batch.getEntries().size());
+        return batch.getEntries().size();
+    }
+
+    private void write(List<JournalEntry> entries) {
+        Set<Long> existing = existingIds(entries);
+        List<JournalEntry> pending = entries.stream()
+                .filter(entry -> !existing.contains(entry.getTransactionId()))
+                .toList();
+
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, pending, pending.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getTransactionId());
+            statement.setLong(2, entry.getAccountId());
+            statement.setInt(3, entry.getOperationTypeId());
+            statement.setBigDecimal(4, entry.getAmount().toBigDecimal());
+            statement.setTimestamp(5, new Timestamp(entry.getEventTimeMillis()));
+        });
+        // Same database transaction as the rows, so replayed entries that were skipped get no second event
+        // and are not counted twice in the daily statements
+        transactionOutbox.recordEvents(pending.stream()
+                .map(entry -> OutboxEvent.of(entry.getTransactionId(), entry.getAccountId(),
+                        entry.getOperationTypeId(), entry.getAmount(), new Timestamp(entry.getEventTimeMillis())))
+                .toList());
+        DailyStatementRollup.Totals totals = new DailyStatementRollup.Totals();
+        pending.forEach(entry -> totals.add(entry.getAccountId(), entry.getOperationTypeId(), entry.getAmount(),
+                entry.getEventTimeMillis()));
+        dailyStatementRollup.apply(totals);
+        pending.forEach(entry -> accountBalanceLedger.record(entry.getAccountId(), entry.getAmount()));
+    }
+
+    // Kept as CSV so an operator can inspect, fix and re-post the rejected transactions
+    private void reject(JournalEntry entry, DataIntegrityViolationException ex) {
+        logger.error("Journaled transaction {} rejected by the database and moved to {}: {}",
+                entry.getTransactionId(), rejectedPath, ex.getMessage());
+        String line = entry.getTransactionId() + "," + entry.getAccountId() + "," + entry.getOperationTypeId()
+                + "," + entry.getAmount() + "," + entry.getEventTimeMillis() + System.lineSeparator();
+        try {
+            Files.writeString(rejectedPath, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException io) {
+            // Not checkpointed: the batch is retried rather than the entry lost
+            throw new UncheckedIOException(io);
+        }
+    }
+
+    private Set<Long> existingIds(List<JournalEntry> entries) {
+        List<Long> ids = entries.stream().map(JournalEntry::getTransactionId).toList();
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(EXISTING_IDS_SQL, Map.of("ids", ids),
+                Long.class));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.transaction_service.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of write-behind transactions.
+ *
+ * <p>Layout: a fixed header holding the checkpoint (the offset of the first entry not yet in the
+ * database), followed by records of {@code [length][crc32][payload]}. A zero length marks the end of
+ * the log. Appenders block until their record has been forced to disk; a single sync thread forces
+ * everything appended since the previous sync in one call, so concurrent appenders share an fsync.
+ * Once every record has been flushed to the database the log rewinds to the start of the file.
+ */
+public class TransactionJournal implements Closeable {
+    private static final int MAGIC = 0x544A4E4C;
+    static final int HEADER_SIZE = 64;
+    private static final int CHECKPOINT_POSITION = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int TERMINATOR_SIZE = 4;
+    // Offsets are ints, so one mapped file stays below 2 GB
+    public static final long MAX_CAPACITY = Integer.MAX_VALUE;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionJournal.class);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+
+    // Guarded by lock
+    private int writeOffset;
+    private int syncedOffset;
+    private int checkpointOffset;
+    private long appendedRecords;
+    private long syncedRecords;
+
+    private volatile boolean running = true;
+    private final Thread syncThread;
+
+    public TransactionJournal(Path path, long capacity) throws IOException {
+        if (capacity < HEADER_SIZE + TERMINATOR_SIZE || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Journal capacity must be between " + (HEADER_SIZE + TERMINATOR_SIZE)
+                    + " and " + MAX_CAPACITY + " bytes: " + capacity);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        if (channel.size() > MAX_CAPACITY) {
+            channel.close();
+            throw new IOException("Journal file is larger than " + MAX_CAPACITY + " bytes: " + path);
+        }
+        this.capacity = (int) Math.max(channel.size(), capacity);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+
+        if (fresh) {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(CHECKPOINT_POSITION, HEADER_SIZE);
+            buffer.putInt(HEADER_SIZE, 0);
+            buffer.force();
+        } else if (buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a transaction journal: " + path);
+        }
+        recover();
+
+        this.syncThread = new Thread(this::syncLoop, "transaction-journal-sync");
+        this.syncThread.setDaemon(true);
+        this.syncThread.start();
+    }
+
+    /**
+     * Appends an entry and returns once it is durable on disk.
+     */
+    public void append(JournalEntry entry) {
+        byte[] payload = entry.encode();
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (HEADER_SIZE + recordSize + TERMINATOR_SIZE > capacity) {
+            throw new IllegalArgumentException("Journal entry does not fit in the journal file");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            ensureRunning();
+            if (writeOffset + recordSize + TERMINATOR_SIZE > capacity) {
+                // The file is full: wait for the flusher to catch up, then reuse it from the start
+                while (checkpointOffset != writeOffset) {
+                    drained.await();
+                    ensureRunning();
+                }
+                rewind();
+            }
+
+            int offset = writeOffset;
+            buffer.putInt(offset + recordSize, 0);
+            buffer.put(offset + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(offset, payload.length);
+            writeOffset = offset + recordSize;
+            long sequence = ++appendedRecords;
+            dataAvailable.signal();
+
+            while (syncedRecords < sequence) {
+                synced.await();
+                ensureRunning();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the transaction journal", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxEntries} durable entries starting at the checkpoint.
+     */
+    public JournalBatch read(int maxEntries) {
+        int from;
+        int to;
+        lock.lock();
+        try {
+            from = checkpointOffset;
+            to = syncedOffset;
+        } finally {
+            lock.unlock();
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        int offset = from;
+        while (offset < to && entries.size() < maxEntries) {
+            int length = buffer.getInt(offset);
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload);
+            entries.add(JournalEntry.decode(payload));
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return new JournalBatch(entries, offset);
+    }
+
+    /**
+     * Marks every entry before {@code offset} as written to the database, and rewinds the log when that was
+     * the last one.
+     */
+    public void checkpoint(int offset) {
+        lock.lock();
+        try {
+            if (offset == writeOffset) {
+                // Everything read has been synced, so nothing is in flight between the offsets
+                rewind();
+                drained.signalAll();
+                return;
+            }
+            buffer.putLong(CHECKPOINT_POSITION, offset);
+            buffer.force(0, HEADER_SIZE);
+            checkpointOffset = offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingBytes() {
+        lock.lock();
+        try {
+            return writeOffset - checkpointOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        lock.lock();
+        try {
+            dataAvailable.signalAll();
+            synced.signalAll();
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            syncThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.force();
+        channel.close();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            int from;
+            int to;
+            long records;
+            lock.lock();
+            try {
+                while (running && writeOffset == syncedOffset) {
+                    dataAvailable.await();
+                }
+                if (writeOffset == syncedOffset) {
+                    return;
+                }
+                from = syncedOffset;
+                to = writeOffset;
+                records = appendedRecords;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // One force covers every record appended since the last sync (group commit)
+            buffer.force(from, to + TERMINATOR_SIZE - from);
+
+            lock.lock();
+            try {
+                syncedOffset = to;
+                syncedRecords = records;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void recover() {
+        checkpointOffset = (int) buffer.getLong(CHECKPOINT_POSITION);
+        int offset = checkpointOffset;
+        int recovered = 0;
+        CRC32 crc = new CRC32();
+        while (offset + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length + TERMINATOR_SIZE > capacity) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER_SIZE, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                break; // torn write from a crash before the record was synced
+            }
+            offset += RECORD_HEADER_SIZE + length;
+            recovered++;
+        }
+
+        writeOffset = offset;
+        syncedOffset = offset;
+        buffer.putInt(offset, 0);
+        if (recovered > 0) {
+            logger.info("Recovered {} unflushed transactions from the journal", recovered);
+        }
+    }
+
+    private void rewind() {
+        writeOffset = HEADER_SIZE;
+        syncedOffset = HEADER_SIZE;
+        checkpointOffset = HEADER_SIZE;
+        buffer.putInt(HEADER_SIZE, 0);
+        buffer.putLong(CHECKPOINT_POSITION, HEADER_SIZE);
+        buffer.force(0, HEADER_SIZE + TERMINATOR_SIZE);
+    }
+
+    private void ensureRunning() {
+        if (!running) {
+            throw new IllegalStateException("Transaction journal is closed");
+        }
+    }
+}
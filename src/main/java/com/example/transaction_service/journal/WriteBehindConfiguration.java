@@ -0,0 +1,49 @@
+package com.example.transaction_service.journal;
+
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.DailyStatementRollup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Beans for the optional write-behind mode, enabled with {@code transaction.write-behind.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public TransactionJournal transactionJournal(
+            @Value("${transaction.write-behind.journal-path:data/transactions.journal}") String journalPath,
+            @Value("${transaction.write-behind.journal-size-mb:64}") int journalSizeMb) throws IOException {
+        long journalSize = journalSizeMb * 1024L * 1024L;
+        if (journalSizeMb < 1 || journalSize > TransactionJournal.MAX_CAPACITY) {
+            throw new IllegalArgumentException("transaction.write-behind.journal-size-mb must be between 1 and "
+                    + TransactionJournal.MAX_CAPACITY / (1024 * 1024) + ": " + journalSizeMb);
+        }
+        return new TransactionJournal(Path.of(journalPath), journalSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    public JournalFlusher journalFlusher(TransactionJournal transactionJournal,
+            @Value("${transaction.write-behind.journal-path:data/transactions.journal}") String journalPath,
+            JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate, AccountBalanceLedger accountBalanceLedger,
+            TransactionOutbox transactionOutbox, DailyStatementRollup dailyStatementRollup,
+            @Value("${transaction.write-behind.flush-batch-size:1000}") int batchSize,
+            @Value("${transaction.write-behind.flush-interval-ms:50}") long intervalMillis) {
+        // Entries the database rejects are set aside next to the journal
+        return new JournalFlusher(transactionJournal, Path.of(journalPath + ".rejected"), jdbcTemplate,
+                namedParameterJdbcTemplate, transactionTemplate, accountBalanceLedger, transactionOutbox,
+                dailyStatementRollup, batchSize, intervalMillis);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.transaction_service.metrics;
+
+import com.example.transaction_service.enums.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timers and counters for the TransactionService hot path.
+ *
+ * <p>Every meter is registered up front and held in arrays indexed by ordinal, so recording is a
+ * {@code System.nanoTime()} call and an array read with no registry lookup or tag allocation. Stages are
+ * timed back to back with {@link #lap}: each call records the time since the previous mark and returns
+ * the new mark. With {@code transaction.metrics.enabled=false} every method returns immediately.
+ */
+@Component
+public class TransactionMetrics {
+
+    public enum Stage {
+        CREATE_VALIDATE("create", "validate"),
+        CREATE_ACCOUNT_LOOKUP("create", "account-lookup"),
+        CREATE_INSERT("create", "insert"),
+        INSTALLMENTS_INSERT("create-installments", "insert"),
+        INSTALLMENTS_SCHEDULE("create-installments", "schedule"),
+        PAY_LOCK("pay-installment", "lock"),
+        PAY_LOOKUP("pay-installment", "lookup"),
+        PAY_MARK_PAID("pay-installment", "mark-paid"),
+        PAY_INSERT("pay-installment", "insert");
+
+        private final String operation;
+        private final String stage;
+
+        Stage(String operation, String stage) {
+            this.operation = operation;
+            this.stage = stage;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Timer[] stageTimers;
+    private final Counter[] createdByType;
+    private final ConcurrentMap<Class<?>, Counter> errorsByType = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry meterRegistry,
+                              @Value("${transaction.metrics.enabled:true}") boolean enabled,
+                              @Value("${transaction.metrics.histograms:true}") boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+
+        Stage[] stages = Stage.values();
+        this.stageTimers = new Timer[stages.length];
+        OperationType[] operationTypes = OperationType.values();
+        this.createdByType = new Counter[operationTypes.length];
+        if (!enabled) {
+            return;
+        }
+
+        for (Stage stage : stages) {
+            stageTimers[stage.ordinal()] = Timer.builder("transaction.stage")
+                    .description("Time spent in one stage of a TransactionService write")
+                    .tag("operation", stage.operation)
+                    .tag("stage", stage.stage)
+                    .publishPercentileHistogram(histograms)
+                    .register(meterRegistry);
+        }
+        for (OperationType operationType : operationTypes) {
+            createdByType[operationType.ordinal()] = Counter.builder("transactions.created")
+                    .tag("operation_type", operationType.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the mark the first {@link #lap} of a method measures from.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time since {@code mark} against the stage and returns the mark for the next stage.
+     */
+    public long lap(Stage stage, long mark) {
+        if (!enabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        stageTimers[stage.ordinal()].record(now - mark, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void transactionCreated(OperationType operationType) {
+        if (enabled) {
+            createdByType[operationType.ordinal()].increment();
+        }
+    }
+
+    // Error path only, so the per-class counter is resolved lazily
+    public void exceptionHandled(Throwable ex) {
+        if (enabled) {
+            errorsByType.computeIfAbsent(ex.getClass(), type -> Counter.builder("transaction.errors")
+                    .description("Exceptions turned into error responses by GlobalExceptionHandler")
+                    .tag("exception", type.getSimpleName())
+                    .register(meterRegistry)).increment();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.transaction_service.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a count of cents in a {@code long}, so validation, sign adjustment and
+ * aggregation on the request path are plain integer arithmetic instead of {@code BigDecimal} allocations.
+ *
+ * <p>The scale is fixed at two decimal places, the scale of the amount columns. Amounts with more places are
+ * rounded half up, which is what the columns did with them before. Arithmetic that leaves the range of a
+ * {@code long} throws {@link ArithmeticException} rather than wrapping.
+ *
+ * <p>Columns are read and written as {@code DECIMAL} through {@link MoneyConverter}, and JSON as a number
+ * through {@link MoneySerializer} and {@link MoneyDeserializer}, so neither format changes.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long CENTS_PER_UNIT = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static Money of(long units) {
+        return ofCents(Math.multiplyExact(units, CENTS_PER_UNIT));
+    }
+
+    public static Money parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Parses a plain decimal number ({@code -12.345}) straight to cents, rounding half up past the second
+     * decimal place. Exponent notation is handed to {@code BigDecimal}.
+     *
+     * @throws NumberFormatException if the text is not a number
+     * @throws ArithmeticException   if the amount does not fit
+     */
+    public static Money parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+            units = Math.addExact(Math.multiplyExact(units, 10), chars[i] - '0');
+            digits++;
+            i++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end && chars[i] == '.') {
+            i++;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (chars[i] - '0');
+                } else if (fractionDigits == SCALE) {
+                    roundUp = chars[i] >= '5';
+                }
+                fractionDigits++;
+                i++;
+            }
+        }
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            return of(new BigDecimal(chars, offset, length));
+        }
+        if (i != end || digits + fractionDigits == 0) {
+            throw new NumberFormatException("Not a decimal amount: " + new String(chars, offset, length));
+        }
+        for (int place = Math.min(fractionDigits, SCALE); place < SCALE; place++) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), fraction + (roundUp ? 1 : 0));
+        return ofCents(negative ? -cents : cents);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Money money && cents == money.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * The amount as a plain decimal with two places, the same text as {@code toBigDecimal().toPlainString()}.
+     */
+    @Override
+    public String toString() {
+        if (cents == Long.MIN_VALUE) {
+            return toBigDecimal().toPlainString();
+        }
+        long magnitude = Math.abs(cents);
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        long fraction = magnitude % CENTS_PER_UNIT;
+        text.append(magnitude / CENTS_PER_UNIT).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
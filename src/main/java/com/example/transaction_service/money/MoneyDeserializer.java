@@ -0,0 +1,38 @@
+package com.example.transaction_service.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link Money} from a JSON number, or a string holding one, without building a {@code BigDecimal}:
+ * integers are scaled directly and decimals are parsed from the parser's own character buffer.
+ */
+public class MoneyDeserializer extends StdScalarDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                        ? Money.of(parser.getDecimalValue())
+                        : Money.of(parser.getLongValue());
+            }
+            if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                return Money.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            return (Money) context.handleWeirdStringValue(Money.class, parser.getText(),
+                    "not a valid amount: %s", e.getMessage());
+        }
+        return (Money) context.handleUnexpectedToken(Money.class, parser);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.transaction_service.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PositiveAmountValidator implements ConstraintValidator<PositiveAmount, Money> {
+
+    @Override
+    public boolean isValid(Money amount, ConstraintValidatorContext context) {
+        return amount == null || amount.isPositive();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.transaction_service.outbox;
+
+import com.example.transaction_service.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file as newline-delimited JSON, one object per event, and forces each batch to
+ * disk before returning. Stands in for a message broker on a single node.
+ */
+public class FileOutboxSink implements OutboxSink, Closeable {
+    private final FileChannel channel;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public FileOutboxSink(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 160);
+            try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+                // The pretty printer only separates records, so each one is terminated by hand
+                generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+                for (OutboxEvent event : events) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", event.getId());
+                    generator.writeNumberField("transactionId", event.getTransactionId());
+                    generator.writeNumberField("accountId", event.getAccountId());
+                    generator.writeNumberField("operationTypeId", event.getOperationTypeId());
+                    generator.writeFieldName("amount");
+                    generator.writeNumber(event.getAmount().toString());
+                    generator.writeStringField("eventDate", event.getEventDate().toInstant().toString());
+                    generator.writeStringField("createdAt", event.getCreatedAt().toInstant().toString());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append outbox events", ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.transaction_service.outbox;
+
+import com.example.transaction_service.repository.OutboxEventRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * The outbox relay and its sink. Events are always written; {@code transaction.outbox.relay.enabled=false}
+ * leaves them in the table for a relay running elsewhere.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink outboxSink(@Value("${transaction.outbox.sink:file}") String sink,
+                                 @Value("${transaction.outbox.file-path:data/outbox.ndjson}") String filePath)
+            throws IOException {
+        return switch (sink) {
+            case "file" -> new FileOutboxSink(Path.of(filePath));
+            case "memory" -> new InMemoryOutboxSink();
+            default -> throw new IllegalStateException("Unknown transaction.outbox.sink: " + sink);
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink,
+            TransactionTemplate transactionTemplate, ShardRouter shardRouter, MeterRegistry meterRegistry,
+            @Value("${transaction.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${transaction.outbox.relay.interval-ms:200}") long intervalMillis) {
+        return new OutboxRelay(outboxEventRepository, outboxSink, transactionTemplate, shardRouter, meterRegistry,
+                Clock.systemUTC(), batchSize, intervalMillis);
+    }
+}
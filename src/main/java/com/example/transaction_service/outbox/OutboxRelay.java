@@ -0,0 +1,153 @@
+package com.example.transaction_service.outbox;
+
+import com.example.transaction_service.entity.OutboxEvent;
+import com.example.transaction_service.repository.OutboxEventRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox into the {@link OutboxSink} from a background thread, one batch at a time per shard.
+ *
+ * <p>Each pass pages through pending events with {@code id > cursor}, publishes a batch and then deletes it,
+ * so delivery is at least once: a crash or a failed delete between the two publishes the batch again.
+ * The cursor only lives for one pass. A row committed late behind it, by a transaction that took its id
+ * earlier, is still in the table and is picked up by the next pass.
+ *
+ * <p>Lag is published as {@code outbox.lag}, the time from an event being written to it being published,
+ * and {@code outbox.backlog.age}, the age of the oldest event the relay has seen but not yet published,
+ * which keeps growing while the sink is failing.
+ */
+public class OutboxRelay implements ApplicationListener<ApplicationReadyEvent>, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+    private final Timer lag;
+    private final Counter published;
+    private final Counter failures;
+
+    // Creation time (epoch millis) of the oldest event seen but not yet published, or 0 when caught up
+    private volatile long oldestPendingMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                       TransactionTemplate transactionTemplate, ShardRouter shardRouter, MeterRegistry meterRegistry,
+                       Clock clock, int batchSize, long intervalMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from an outbox event being written to the sink accepting it")
+                .register(meterRegistry);
+        this.published = Counter.builder("outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("outbox.publish.failures").register(meterRegistry);
+        Gauge.builder("outbox.backlog.age", this, OutboxRelay::getBacklogAgeMillis)
+                .description("Age in milliseconds of the oldest outbox event not yet published")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        executor.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Synchronized so a drain triggered by hand never interleaves with the scheduled one
+    public synchronized void drain() {
+        try {
+            shardRouter.forEachShard(shard -> {
+                long cursor = 0;
+                long next;
+                while ((next = relayBatch(cursor)) != cursor) {
+                    cursor = next;
+                }
+            });
+            oldestPendingMillis = 0;
+        } catch (RuntimeException ex) {
+            // Unpublished events stay in the table and are retried on the next run
+            failures.increment();
+            logger.error("Failed to relay outbox events: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Publishes and deletes the next batch after {@code cursor} on the bound shard. Returns the id of the
+     * last event relayed, or {@code cursor} itself when there was nothing after it.
+     */
+    long relayBatch(long cursor) {
+        // Not read-only: a read-only transaction may be routed to a replica that has not seen the events
+        List<OutboxEvent> events = transactionTemplate.execute(status ->
+                outboxEventRepository.findByIdGreaterThanOrderById(cursor, Limit.of(batchSize)));
+        if (events == null || events.isEmpty()) {
+            return cursor;
+        }
+        notePending(events);
+
+        sink.publish(events);
+
+        List<Long> ids = new ArrayList<>(events.size());
+        long now = clock.millis();
+        for (OutboxEvent event : events) {
+            ids.add(event.getId());
+            lag.record(Duration.ofMillis(Math.max(0, now - event.getCreatedAt().getTime())));
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteByIds(ids));
+        published.increment(events.size());
+        logger.debug("Relayed {} outbox events", events.size());
+        return ids.get(ids.size() - 1);
+    }
+
+    public long getBacklogAgeMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, clock.millis() - oldest);
+    }
+
+    private void notePending(List<OutboxEvent> events) {
+        long created = events.get(0).getCreatedAt().getTime();
+        if (oldestPendingMillis == 0 || created < oldestPendingMillis) {
+            oldestPendingMillis = created;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
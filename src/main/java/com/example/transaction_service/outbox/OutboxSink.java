@@ -0,0 +1,17 @@
+package com.example.transaction_service.outbox;
+
+import com.example.transaction_service.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay publishes events. Declare a bean of this type to replace the configured sink.
+ *
+ * <p>{@link #publish} must return only once the sink has durably accepted every event in the batch; if it
+ * throws, the whole batch is published again later. Consumers therefore see every event at least once and
+ * should de-duplicate on {@link OutboxEvent#getId()}.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,46 @@
+package com.example.transaction_service.outbox;
+
+import com.example.transaction_service.entity.OutboxEvent;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records saved transactions in the outbox. Must be called inside the database transaction that saves
+ * them, so an event exists exactly when its transaction committed; the insert joins the same flush and
+ * nothing is published on the caller's thread.
+ */
+@Component
+public class TransactionOutbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public TransactionOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    public void record(Transaction transaction) {
+        outboxEventRepository.save(eventFor(transaction));
+    }
+
+    public void recordAll(List<Transaction> transactions) {
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            events.add(eventFor(transaction));
+        }
+        recordEvents(events);
+    }
+
+    public void recordEvents(List<OutboxEvent> events) {
+        if (!events.isEmpty()) {
+            outboxEventRepository.saveAll(events);
+        }
+    }
+
+    private static OutboxEvent eventFor(Transaction transaction) {
+        return OutboxEvent.of(transaction.getTransactionId(), transaction.getAccount().getAccountId(),
+                transaction.getOperationTypeId(), transaction.getAmount(), transaction.getEventDate());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.transaction_service.repository;
+
+import com.example.transaction_service.entity.DailyStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatementRepository extends JpaRepository<DailyStatement, DailyStatement.Key> {
+
+    // Applied in the database so concurrent transactions on the same account and day never lose an update
+    @Modifying
+    @Query("update DailyStatement s set s.transactionCount = s.transactionCount + :count, "
+            + "s.debitTotal = s.debitTotal + :debit, s.creditTotal = s.creditTotal + :credit, "
+            + "s.version = s.version + 1 "
+            + "where s.accountId = :accountId and s.statementDate = :statementDate "
+            + "and s.operationTypeId = :operationTypeId")
+    int add(@Param("accountId") Long accountId, @Param("statementDate") LocalDate statementDate,
+            @Param("operationTypeId") Integer operationTypeId, @Param("count") long count,
+            @Param("debit") BigDecimal debit, @Param("credit") BigDecimal credit);
+
+    List<DailyStatement> findByAccountIdAndStatementDateBetweenOrderByStatementDateAscOperationTypeIdAsc(
+            Long accountId, LocalDate from, LocalDate to);
+}
@@ -3,15 +3,78 @@ package com.example.transaction_service.repository;
 import com.example.transaction_service.entity.Installment;
 import com.example.transaction_service.entity.Transaction;
 import com.example.transaction_service.enums.InstallmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InstallmentRepository extends JpaRepository<Installment, Long> {
     List<Installment> findByTransactionAndStatus(Transaction transaction, InstallmentStatus status);
     Optional<Installment> findByTransactionAndInstallmentNumber(Transaction transaction, Integer installmentNumber);
+    List<Installment> findByTransactionTransactionId(Long transactionId);
+
+    // Plain SQL so InstallmentPaymentBatcher can send the same statement as one JDBC batch
+    String MARK_PAID_SQL = "update installments set status = 'PAID', version = coalesce(version, 0) + 1 "
+            + "where id = :id and coalesce(version, 0) = :version and status <> 'PAID'";
+
+    // Compare-and-set on (status, version): returns 0 when another payment got there first.
+    // Overdue installments can still be paid. Rows written before the version column existed hold NULL,
+    // which counts as version 0. Clears the persistence context so the stale managed copy is never
+    // flushed over the new row.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = MARK_PAID_SQL, nativeQuery = true)
+    int markPaid(@Param("id") Long id, @Param("version") long version);
+
+    // Rows of (id, purchase transactionId, installmentNumber, installmentAmount, status, version) for a batch of
+    // payments, with a NULL version read as 0 as in markPaid. Matches every requested number on every requested
+    // purchase, so callers pick their pairs out.
+    @Query("select i.id, i.transaction.transactionId, i.installmentNumber, i.installmentAmount, i.status, "
+            + "coalesce(i.version, 0L) "
+            + "from Installment i where i.transaction.transactionId in :transactionIds "
+            + "and i.installmentNumber in :installmentNumbers")
+    List<Object[]> findForPayment(@Param("transactionIds") Collection<Long> transactionIds,
+                                  @Param("installmentNumbers") Collection<Integer> installmentNumbers);
+
+    // (id, dueDate) of every pending installment, read through a forward-only cursor at startup. On MySQL
+    // the fetch size is only honoured with useCursorFetch=true on the JDBC URL
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.id, i.dueDate from Installment i "
+            + "where i.status = com.example.transaction_service.enums.InstallmentStatus.PENDING "
+            + "and i.dueDate is not null")
+    Stream<Object[]> streamPendingDueDates();
+
+    @Query("select i.id from Installment i where i.id in :ids "
+            + "and i.status = com.example.transaction_service.enums.InstallmentStatus.PENDING")
+    List<Long> findPendingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Installment i set i.status = com.example.transaction_service.enums.InstallmentStatus.OVERDUE, "
+            + "i.version = coalesce(i.version, 0L) + 1 "
+            + "where i.id in :ids "
+            + "and i.status = com.example.transaction_service.enums.InstallmentStatus.PENDING")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+
+    // Export rows as scalar tuples, so nothing accumulates in the persistence context. The fetch size only
+    // streams on MySQL with useCursorFetch=true on the JDBC URL
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.id, i.transaction.transactionId, i.installmentNumber, i.installmentAmount, i.dueDate, i.status "
+            + "from Installment i order by i.id")
+    Stream<Object[]> streamAllForExport();
 }
 
@@ -0,0 +1,33 @@
+package com.example.transaction_service.repository;
+
+import com.example.transaction_service.entity.InstallmentSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface InstallmentSummaryRepository extends JpaRepository<InstallmentSummary, Long> {
+
+    // Plain SQL so InstallmentPaymentBatcher can send the same statement as one JDBC batch
+    String RECORD_PAYMENT_SQL = "update installment_summaries "
+            + "set remaining_count = remaining_count - 1, remaining_amount = remaining_amount - :amount, "
+            + "next_installment_number = case when next_installment_number = :installmentNumber "
+            + "then (select min(i.installment_number) from installments i "
+            + "where i.transaction_id = :transactionId and i.status <> 'PAID') "
+            + "else next_installment_number end, "
+            + "version = version + 1 "
+            + "where transaction_id = :transactionId";
+
+    // Applied in the database so concurrent payments of different installments never lose an update.
+    // Runs after the installment is marked paid, so the subquery only sees the installments still owed;
+    // it is evaluated only when the paid installment was the next one.
+    @Modifying(flushAutomatically = true)
+    @Query(value = RECORD_PAYMENT_SQL, nativeQuery = true)
+    int recordPayment(@Param("transactionId") Long transactionId,
+                      @Param("installmentNumber") Integer installmentNumber,
+                      @Param("amount") BigDecimal amount);
+}
@@ -0,0 +1,22 @@
+package com.example.transaction_service.repository;
+
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keyset-paginated reads of an account's transactions, newest first. Implemented in
+ * TransactionHistoryRepositoryImpl and mixed into TransactionRepository.
+ */
+public interface TransactionHistoryRepository {
+
+    /**
+     * Returns up to {@code limit} transactions of the account ordered by (event_date, transaction_id)
+     * descending. When {@code afterEventDate} and {@code afterTransactionId} are given, only rows strictly
+     * after that position are returned; {@code operationTypeId}, {@code from} (inclusive) and {@code to}
+     * (exclusive) are optional filters.
+     */
+    List<TransactionHistoryItemDTO> findHistoryPage(Long accountId, Integer operationTypeId, Instant from, Instant to,
+                                                    Instant afterEventDate, Long afterTransactionId, int limit);
+}
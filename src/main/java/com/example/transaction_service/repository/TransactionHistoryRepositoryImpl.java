@@ -0,0 +1,67 @@
+package com.example.transaction_service.repository;
+
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Builds the history query from only the filters that are present. Optional filters written as
+ * {@code (:param is null or ...)} would stop the database from using the composite indexes, so each
+ * combination gets its own statement. The seek predicate replaces OFFSET: every page starts with an
+ * index lookup at the cursor, so page 1,000 costs the same as page 1.
+ */
+class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+    private final EntityManager entityManager;
+
+    TransactionHistoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TransactionHistoryItemDTO> findHistoryPage(Long accountId, Integer operationTypeId, Instant from,
+                                                           Instant to, Instant afterEventDate,
+                                                           Long afterTransactionId, int limit) {
+        StringBuilder jpql = new StringBuilder("select new ")
+                .append(TransactionHistoryItemDTO.class.getName())
+                .append("(t.transactionId, t.operationTypeId, t.amount, t.eventDate)")
+                .append(" from Transaction t where t.account.accountId = :accountId");
+        if (operationTypeId != null) {
+            jpql.append(" and t.operationTypeId = :operationTypeId");
+        }
+        if (from != null) {
+            jpql.append(" and t.eventDate >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and t.eventDate < :to");
+        }
+        if (afterEventDate != null) {
+            // The leading range condition lets the index scan start at the cursor
+            jpql.append(" and t.eventDate <= :afterEventDate and (t.eventDate < :afterEventDate")
+                    .append(" or t.transactionId < :afterTransactionId)");
+        }
+        jpql.append(" order by t.eventDate desc, t.transactionId desc");
+
+        TypedQuery<TransactionHistoryItemDTO> query = entityManager
+                .createQuery(jpql.toString(), TransactionHistoryItemDTO.class)
+                .setParameter("accountId", accountId)
+                .setMaxResults(limit);
+        if (operationTypeId != null) {
+            query.setParameter("operationTypeId", operationTypeId);
+        }
+        if (from != null) {
+            query.setParameter("from", Timestamp.from(from));
+        }
+        if (to != null) {
+            query.setParameter("to", Timestamp.from(to));
+        }
+        if (afterEventDate != null) {
+            query.setParameter("afterEventDate", Timestamp.from(afterEventDate));
+            query.setParameter("afterTransactionId", afterTransactionId);
+        }
+        return query.getResultList();
+    }
+}
@@ -2,9 +2,48 @@ package com.example.transaction_service.repository;
 
 
 import com.example.transaction_service.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
+
+    // Rows of (accountId, signed balance as BigDecimal), read through a forward-only cursor.
+    // Native, so the sum is the column's DECIMAL rather than an aggregate over the Money converter.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "select account_id, sum(amount) from transactions group by account_id", nativeQuery = true)
+    Stream<Object[]> streamBalancesByAccount();
+
+    // Export rows as scalar tuples, so nothing accumulates in the persistence context. The fetch size only
+    // streams on MySQL with useCursorFetch=true on the JDBC URL
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t.transactionId, t.account.accountId, t.operationTypeId, t.amount, t.eventDate "
+            + "from Transaction t order by t.transactionId")
+    Stream<Object[]> streamAllForExport();
+
+    // Rows of (accountId, operationTypeId, signed amount, eventDate) in account order, for rebuilding
+    // the daily statements. Streams on MySQL only with useCursorFetch=true, whose server-side cursor also
+    // lets the rebuild write totals on the same connection mid-scan; Integer.MIN_VALUE streaming would not
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t.account.accountId, t.operationTypeId, t.amount, t.eventDate "
+            + "from Transaction t order by t.account.accountId, t.eventDate")
+    Stream<Object[]> streamForStatements();
+
+    @Query("select t.transactionId from Transaction t where t.transactionId in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
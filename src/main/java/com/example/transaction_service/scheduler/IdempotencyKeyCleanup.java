@@ -0,0 +1,61 @@
+package com.example.transaction_service.scheduler;
+
+import com.example.transaction_service.repository.IdempotencyRecordRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes idempotency_keys rows older than {@code transaction.idempotency.ttl}, the same window the in-memory
+ * IdempotencyCache keeps them for. A retry after that is treated as a new request.
+ */
+@Component
+public class IdempotencyKeyCleanup {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Duration ttl;
+    private final Clock clock;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyCleanup.class);
+
+    @Autowired
+    public IdempotencyKeyCleanup(IdempotencyRecordRepository idempotencyRecordRepository,
+                                 PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                                 @Value("${transaction.idempotency.ttl:24h}") Duration ttl) {
+        this(idempotencyRecordRepository, transactionManager, shardRouter, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyKeyCleanup(IdempotencyRecordRepository idempotencyRecordRepository,
+                                 PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                                 Duration ttl, Clock clock) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Deletes the expired keys on every shard and returns how many were removed.
+     */
+    @Scheduled(cron = "${transaction.idempotency.cleanup-cron:0 15 * * * *}")
+    public int purgeExpired() {
+        Instant cutoff = clock.instant().minus(ttl);
+        int[] deleted = {0};
+        // Keys live on the shard of the account they were used for
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status ->
+                deleted[0] += idempotencyRecordRepository.deleteCreatedBefore(cutoff)));
+        logger.info("Purged {} idempotency keys created before {}", deleted[0], cutoff);
+        return deleted[0];
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.transaction_service.scheduler;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published for a batch of still-pending installments that fall due on {@code dueDate}.
+ */
+public class InstallmentRemindersEvent {
+    private final LocalDate dueDate;
+    private final List<Long> installmentIds;
+
+    public InstallmentRemindersEvent(LocalDate dueDate, List<Long> installmentIds) {
+        this.dueDate = dueDate;
+        this.installmentIds = installmentIds;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public List<Long> getInstallmentIds() {
+        return installmentIds;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.transaction_service.scheduler;
+
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Tracks pending installments by due date and fires reminder and overdue events once a day.
+ *
+ * <p>Pending installments are loaded into an InstallmentTimingWheel at startup and added as new
+ * schedules commit. Paid installments are not removed from the wheel; each batch of ids taken from
+ * the wheel is re-checked against the database before anything is published, so a payment never
+ * has to touch the scheduler.
+ *
+ * <p>The last due date reminded about is remembered, so a run that was skipped or failed is caught up by
+ * the next one and a second run on the same day sends nothing new. It is kept in memory only, like the
+ * wheel: after a restart reminders resume from {@code reminder-days} ahead of the first run.
+ */
+@Component
+public class InstallmentScheduler implements SmartInitializingSingleton {
+    private final InstallmentRepository installmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final int wheelDays;
+    private final int reminderDays;
+    private final int batchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private InstallmentTimingWheel wheel;
+    // Due date of the last reminders sent; null until the first run
+    private LocalDate lastReminderDate;
+    private static final Logger logger = LoggerFactory.getLogger(InstallmentScheduler.class);
+
+    @Autowired
+    public InstallmentScheduler(InstallmentRepository installmentRepository, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                                @Value("${transaction.installment-scheduler.wheel-days:4096}") int wheelDays,
+                                @Value("${transaction.installment-scheduler.reminder-days:3}") int reminderDays,
+                                @Value("${transaction.installment-scheduler.batch-size:1000}") int batchSize) {
+        this(installmentRepository, eventPublisher, transactionManager, shardRouter, Clock.systemDefaultZone(),
+                wheelDays, reminderDays, batchSize);
+    }
+
+    public InstallmentScheduler(InstallmentRepository installmentRepository, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager, ShardRouter shardRouter, Clock clock,
+                                int wheelDays, int reminderDays, int batchSize) {
+        this.installmentRepository = installmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+        this.wheelDays = wheelDays;
+        this.reminderDays = reminderDays;
+        this.batchSize = batchSize;
+        this.wheel = new InstallmentTimingWheel(LocalDate.now(clock), wheelDays);
+    }
+
+    /**
+     * Adds a new installment schedule once the surrounding database transaction commits.
+     */
+    public void track(List<Installment> schedule) {
+        long[] ids = new long[schedule.size()];
+        LocalDate[] dueDates = new LocalDate[schedule.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = schedule.get(i).getId();
+            dueDates[i] = schedule.get(i).getDueDate();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(ids, dueDates);
+                }
+            });
+        } else {
+            schedule(ids, dueDates);
+        }
+    }
+
+    /**
+     * Rebuilds the wheel from the pending installments on every shard. The rows are streamed, so only the
+     * wheel's eight bytes per installment are held; on MySQL that needs {@code useCursorFetch=true} on the
+     * JDBC URL, or the driver materialises the whole result set first.
+     */
+    public void reload() {
+        InstallmentTimingWheel loaded = new InstallmentTimingWheel(LocalDate.now(clock), wheelDays);
+        // Not read-only: read-only transactions may be routed to a lagging replica, and a schedule missed
+        // here would never be tracked
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = installmentRepository.streamPendingDueDates()) {
+                rows.forEach(row -> loaded.schedule((Long) row[0], (LocalDate) row[1]));
+            }
+        }));
+
+        lock.lock();
+        try {
+            wheel = loaded;
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Loaded {} pending installments into the due-date scheduler", loaded.size());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Marks installments due before today as overdue and sends reminders for those due in
+     * {@code reminder-days} days, plus any reminder days missed since the last run. Safe to run more
+     * than once a day.
+     */
+    @Scheduled(cron = "${transaction.installment-scheduler.cron:0 5 0 * * *}")
+    public void runDueChecks() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate reminderUntil = today.plusDays(reminderDays);
+        long[] overdue;
+        LocalDate reminderFrom;
+        lock.lock();
+        try {
+            overdue = wheel.advanceTo(today);
+            // Due dates already behind today are overdue instead
+            reminderFrom = lastReminderDate == null ? reminderUntil : max(lastReminderDate.plusDays(1), today);
+        } finally {
+            lock.unlock();
+        }
+
+        int overdueCount = 0;
+        for (List<Long> batch : batches(overdue)) {
+            try {
+                overdueCount += markOverdue(batch);
+            } catch (RuntimeException ex) {
+                // Put the batch back as already late, so the next run retries it
+                logger.error("Failed to mark {} installments overdue: {}", batch.size(), ex.getMessage(), ex);
+                requeue(batch, today.minusDays(1));
+            }
+        }
+        int reminderCount = 0;
+        for (LocalDate dueDate = reminderFrom; !dueDate.isAfter(reminderUntil); dueDate = dueDate.plusDays(1)) {
+            reminderCount += sendReminders(dueDate);
+        }
+        logger.info("Installment due checks for {}: {} overdue, {} reminders", today, overdueCount, reminderCount);
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(long[] ids, LocalDate[] dueDates) {
+        lock.lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                if (dueDates[i] != null) {
+                    wheel.schedule(ids[i], dueDates[i]);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void requeue(List<Long> batch, LocalDate dueDate) {
+        lock.lock();
+        try {
+            batch.forEach(id -> wheel.schedule(id, dueDate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Installment ids do not name their shard, so each batch is checked on every shard. Events are
+    // published per shard as it commits, so a failure on a later shard does not lose them.
+    private int markOverdue(List<Long> batch) {
+        int[] count = new int[1];
+        shardRouter.forEachShard(shard -> {
+            List<Long> overdue = transactionTemplate.execute(status -> {
+                List<Long> pending = installmentRepository.findPendingIds(batch);
+                if (!pending.isEmpty()) {
+                    installmentRepository.markOverdue(pending);
+                }
+                return pending;
+            });
+            if (!overdue.isEmpty()) {
+                eventPublisher.publishEvent(new InstallmentsOverdueEvent(overdue));
+            }
+            count[0] += overdue.size();
+        });
+        return count[0];
+    }
+
+    // Records the day as done once all its batches are published, so a failure retries it on the next run
+    private int sendReminders(LocalDate dueDate) {
+        long[] reminders;
+        lock.lock();
+        try {
+            reminders = wheel.peek(dueDate);
+        } finally {
+            lock.unlock();
+        }
+
+        int count = 0;
+        for (List<Long> batch : batches(reminders)) {
+            count += sendReminders(dueDate, batch);
+        }
+
+        lock.lock();
+        try {
+            lastReminderDate = lastReminderDate == null ? dueDate : max(lastReminderDate, dueDate);
+        } finally {
+            lock.unlock();
+        }
+        return count;
+    }
+
+    private int sendReminders(LocalDate dueDate, List<Long> batch) {
+        List<Long> pending = new ArrayList<>();
+        shardRouter.forEachShard(shard ->
+                pending.addAll(readOnlyTransaction.execute(status -> installmentRepository.findPendingIds(batch))));
+        if (!pending.isEmpty()) {
+            eventPublisher.publishEvent(new InstallmentRemindersEvent(dueDate, pending));
+        }
+        return pending.size();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private List<List<Long>> batches(long[] ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += batchSize) {
+            int to = Math.min(ids.length, from + batchSize);
+            List<Long> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(ids[i]);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.transaction_service.scheduler;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Single-level timing wheel with one slot per day, holding installment ids in primitive arrays. A slot
+ * covers the day {@code currentDay + n} for {@code n < slotCount}; due dates beyond that horizon wait in
+ * an overflow list and are cascaded into the wheel as it turns. Scheduling is O(1) and costs eight
+ * bytes per installment, so millions of pending installments need neither timers nor table scans.
+ *
+ * <p>Not thread-safe; InstallmentScheduler guards every call with its lock.
+ */
+public class InstallmentTimingWheel {
+    private static final long[] EMPTY = new long[0];
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long[][] slots;
+    private final int[] counts;
+    private final int mask;
+    private long currentDay;
+
+    // Due before currentDay; handed out by the next advanceTo
+    private long[] late = EMPTY;
+    private int lateCount;
+
+    // Due at or after currentDay + slot count, as parallel arrays
+    private long[] overflowIds = EMPTY;
+    private long[] overflowDays = EMPTY;
+    private int overflowCount;
+
+    private int size;
+
+    public InstallmentTimingWheel(LocalDate today, int slotCount) {
+        int length = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.slots = new long[length][];
+        this.counts = new int[length];
+        this.mask = length - 1;
+        this.currentDay = today.toEpochDay();
+    }
+
+    public void schedule(long installmentId, LocalDate dueDate) {
+        long day = dueDate.toEpochDay();
+        if (day < currentDay) {
+            late = append(late, lateCount++, installmentId);
+        } else if (day - currentDay < slots.length) {
+            addToSlot(day, installmentId);
+        } else {
+            overflowIds = append(overflowIds, overflowCount, installmentId);
+            overflowDays = append(overflowDays, overflowCount, day);
+            overflowCount++;
+        }
+        size++;
+    }
+
+    /**
+     * Ids due on {@code day}, left in place. Days before the current day or beyond the horizon return
+     * nothing.
+     */
+    public long[] peek(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        if (epochDay < currentDay || epochDay - currentDay >= slots.length) {
+            return EMPTY;
+        }
+        int index = (int) (epochDay & mask);
+        return counts[index] == 0 ? EMPTY : Arrays.copyOf(slots[index], counts[index]);
+    }
+
+    /**
+     * Turns the wheel forward to {@code today}, removing and returning every id due before it.
+     */
+    public long[] advanceTo(LocalDate today) {
+        long target = today.toEpochDay();
+        long[] due = Arrays.copyOf(late, Math.max(lateCount, INITIAL_CAPACITY));
+        int dueCount = lateCount;
+        late = EMPTY;
+        lateCount = 0;
+
+        // After a long pause every slot is already due, so never turn more than once around
+        long steps = Math.min(Math.max(0, target - currentDay), slots.length);
+        for (long day = currentDay; day < currentDay + steps; day++) {
+            int index = (int) (day & mask);
+            for (int i = 0; i < counts[index]; i++) {
+                due = append(due, dueCount++, slots[index][i]);
+            }
+            slots[index] = null;
+            counts[index] = 0;
+        }
+        currentDay = Math.max(currentDay, target);
+
+        if (overflowCount > 0) {
+            int kept = 0;
+            for (int i = 0; i < overflowCount; i++) {
+                long day = overflowDays[i];
+                if (day < currentDay) {
+                    due = append(due, dueCount++, overflowIds[i]);
+                } else if (day - currentDay < slots.length) {
+                    addToSlot(day, overflowIds[i]);
+                } else {
+                    overflowIds[kept] = overflowIds[i];
+                    overflowDays[kept] = day;
+                    kept++;
+                }
+            }
+            overflowCount = kept;
+        }
+
+        size -= dueCount;
+        return Arrays.copyOf(due, dueCount);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void addToSlot(long day, long installmentId) {
+        int index = (int) (day & mask);
+        long[] slot = slots[index];
+        if (slot == null) {
+            slot = new long[INITIAL_CAPACITY];
+        }
+        slots[index] = append(slot, counts[index]++, installmentId);
+    }
+
+    private static long[] append(long[] array, int count, long value) {
+        if (count == array.length) {
+            array = Arrays.copyOf(array, Math.max(INITIAL_CAPACITY, count + (count >> 1)));
+        }
+        array[count] = value;
+        return array;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.transaction_service.scheduler;
+
+import java.util.List;
+
+/**
+ * Published after a batch of installments has been moved from PENDING to OVERDUE.
+ */
+public class InstallmentsOverdueEvent {
+    private final List<Long> installmentIds;
+
+    public InstallmentsOverdueEvent(List<Long> installmentIds) {
+        this.installmentIds = installmentIds;
+    }
+
+    public List<Long> getInstallmentIds() {
+        return installmentIds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.transaction_service.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled jobs such as the daily installment due checks. Set
+ * {@code transaction.scheduling.enabled=false} on instances that should not run them.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "transaction.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,83 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Running balance per account, kept in memory so reads never scan the transactions table.
+ * Amounts are applied after the surrounding database transaction commits, and the whole ledger is
+ * rebuilt from the table before the application starts serving requests.
+ * Balances are kept in cents, so applying an amount is an atomic add that allocates nothing.
+ */
+@Component
+public class AccountBalanceLedger implements SmartInitializingSingleton {
+    private final ConcurrentHashMap<Long, AtomicLong> balances = new ConcurrentHashMap<>();
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private static final Logger logger = LoggerFactory.getLogger(AccountBalanceLedger.class);
+
+    public AccountBalanceLedger(TransactionRepository transactionRepository,
+                                PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    public BigDecimal getBalance(Long accountId) {
+        AtomicLong balance = balances.get(accountId);
+        return Money.ofCents(balance == null ? 0 : balance.get()).toBigDecimal();
+    }
+
+    public void record(Long accountId, Money signedAmount) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(accountId, signedAmount);
+                }
+            });
+        } else {
+            apply(accountId, signedAmount);
+        }
+    }
+
+    public void rebuild() {
+        balances.clear();
+        // Not read-only: read-only transactions may be routed to a lagging replica, and the ledger has to
+        // start from every committed transaction
+        // Every account lives on exactly one shard, so the per-shard totals never overlap
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = transactionRepository.streamBalancesByAccount()) {
+                rows.forEach(row -> balances.put(((Number) row[0]).longValue(),
+                        new AtomicLong(Money.of((BigDecimal) row[1]).getCents())));
+            }
+        }));
+        logger.info("Rebuilt balance ledger for {} accounts", balances.size());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    private void apply(Long accountId, Money signedAmount) {
+        long cents = signedAmount.getCents();
+        balances.computeIfAbsent(accountId, id -> new AtomicLong())
+                .accumulateAndGet(cents, Math::addExact);
+    }
+}
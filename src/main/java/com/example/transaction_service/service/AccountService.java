@@ -1,37 +1,86 @@
 package com.example.transaction_service.service;
 
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.cache.KnownAccountIds;
 import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.response.AccountBalanceResponseDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.exception.ResourceNotFoundException;
 import com.example.transaction_service.repository.AccountRepository;
+import com.example.transaction_service.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AccountService {
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final KnownAccountIds knownAccountIds;
+    private final AccountBalanceLedger accountBalanceLedger;
+    private final ShardRouter shardRouter;
     private static final Logger logger = LoggerFactory.getLogger(AccountService.class);
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, AccountCache accountCache,
+                          KnownAccountIds knownAccountIds, AccountBalanceLedger accountBalanceLedger,
+                          ShardRouter shardRouter) {
         this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.knownAccountIds = knownAccountIds;
+        this.accountBalanceLedger = accountBalanceLedger;
+        this.shardRouter = shardRouter;
     }
 
     public Account createAccount(final AccountRequestDTO accountDTO) {
-        Account account = new Account();
-        account.setDocumentNumber(accountDTO.getDocumentNumber());
+        try (ShardRouter.Binding ignored = shardRouter.bind(shardRouter.shardForNewAccount())) {
+            Account account = new Account();
+            account.setDocumentNumber(accountDTO.getDocumentNumber());
 
-        Account savedAccount = accountRepository.save(account);
-        logger.info("Created account with ID: {}", savedAccount.getAccountId());
-        return savedAccount;
+            Account savedAccount = accountRepository.save(account);
+            accountCache.put(savedAccount);
+            knownAccountIds.add(savedAccount.getAccountId());
+            logger.debug("Created account with ID: {}", savedAccount.getAccountId());
+            return savedAccount;
+        }
     }
 
+    @Transactional(readOnly = true)
     public Account getAccountById(final Long accountId) {
-        logger.info("Fetching account with ID: {}", accountId);
-        return accountRepository.findById(accountId)
-                .orElseThrow(() -> {
-                    logger.error("Account not found with ID: {}", accountId);
-                    return new ResourceNotFoundException("Account not found with ID: " + accountId);
-                });
+        return findAccount(accountId);
+    }
+
+    /**
+     * Same lookup as {@link #getAccountById}, but in a read-write transaction so a cache miss is answered by the
+     * primary. Write paths validate with this: an account created a moment ago may not have reached the replica.
+     */
+    @Transactional
+    public Account getAccountForWrite(final Long accountId) {
+        return findAccount(accountId);
+    }
+
+    private Account findAccount(Long accountId) {
+        try (ShardRouter.Binding ignored = shardRouter.bindAccount(accountId)) {
+            logger.debug("Fetching account with ID: {}", accountId);
+            Account cached = accountCache.get(accountId);
+            if (cached != null) {
+                return cached;
+            }
+
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> {
+                        logger.debug("Account not found with ID: {}", accountId);
+                        return new ResourceNotFoundException("Account not found with ID: " + accountId);
+                    });
+            accountCache.put(account);
+            knownAccountIds.add(accountId);
+            return account;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public AccountBalanceResponseDTO getAccountBalance(final Long accountId) {
+        Account account = getAccountById(accountId);
+        return new AccountBalanceResponseDTO(account.getAccountId(), accountBalanceLedger.getBalance(accountId));
     }
 }
@@ -0,0 +1,234 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.entity.DailyStatement;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.DailyStatementRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps daily_statements in step with the transactions table. Each transaction adds to the row of its
+ * account, UTC day and operation type in the caller's database transaction, so the totals commit or roll
+ * back with the transaction.
+ *
+ * <p>Rows known to exist get a single UPDATE. Otherwise, or when that UPDATE finds no row, the totals go in
+ * with one INSERT ... ON DUPLICATE KEY UPDATE, which adds to a row created earlier or by a concurrent
+ * transaction. Inserting first matters on MySQL: an UPDATE that misses takes a gap lock, and two of those
+ * followed by inserts deadlock. A key is remembered only once the transaction that wrote it commits, for the
+ * current and previous day, as transactions are dated when they are created.
+ */
+@Component
+public class DailyStatementRollup {
+    private static final String INSERT_SQL = "insert into daily_statements (account_id, statement_date, "
+            + "operation_type_id, transaction_count, debit_total, credit_total, version) "
+            + "values (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String UPSERT_SQL = INSERT_SQL + " on duplicate key update "
+            + "transaction_count = transaction_count + values(transaction_count), "
+            + "debit_total = debit_total + values(debit_total), "
+            + "credit_total = credit_total + values(credit_total), version = version + 1";
+
+    private static final int REBUILD_BATCH_ROWS = 1000;
+
+    private final DailyStatementRepository dailyStatementRepository;
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+    private final Set<DailyStatement.Key> knownKeys = ConcurrentHashMap.newKeySet();
+    private volatile LocalDate knownKeysDay;
+    private static final Logger logger = LoggerFactory.getLogger(DailyStatementRollup.class);
+
+    @Autowired
+    public DailyStatementRollup(DailyStatementRepository dailyStatementRepository,
+                                TransactionRepository transactionRepository, JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this(dailyStatementRepository, transactionRepository, jdbcTemplate, transactionManager, shardRouter,
+                Clock.systemUTC());
+    }
+
+    public DailyStatementRollup(DailyStatementRepository dailyStatementRepository,
+                                TransactionRepository transactionRepository, JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager, ShardRouter shardRouter, Clock clock) {
+        this.dailyStatementRepository = dailyStatementRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+    }
+
+    public static LocalDate statementDate(long eventTimeMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(eventTimeMillis), ZoneOffset.UTC);
+    }
+
+    public void record(Transaction transaction) {
+        recordAll(List.of(transaction));
+    }
+
+    public void recordAll(List<Transaction> transactions) {
+        Totals totals = new Totals();
+        for (Transaction transaction : transactions) {
+            totals.add(transaction.getAccount().getAccountId(), transaction.getOperationTypeId(),
+                    transaction.getAmount(), transaction.getEventDate().getTime());
+        }
+        apply(totals);
+    }
+
+    public void apply(Totals totals) {
+        pruneKnownKeys();
+        List<DailyStatement.Key> written = new ArrayList<>();
+        totals.rows.forEach((key, row) -> {
+            if (knownKeys.contains(key) && update(key, row)) {
+                return;
+            }
+            upsert(key, row);
+            written.add(key);
+        });
+        remember(written);
+    }
+
+    // A key remembered before commit would outlive a rollback that removed the row it points at
+    private void remember(List<DailyStatement.Key> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            knownKeys.addAll(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                knownKeys.addAll(keys);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the whole table from a single ordered scan of the transactions, one shard at a time.
+     * Meant to run offline: transactions committed on a running service while it runs may be missed.
+     * On MySQL the scan only streams when the JDBC URL sets {@code useCursorFetch=true}; without it the
+     * driver loads the whole transactions table first. Returns the number of rows written.
+     */
+    public long rebuild() {
+        knownKeys.clear();
+        long[] written = {0};
+        // Not read-only: read-only transactions may be routed to a lagging replica
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            dailyStatementRepository.deleteAllInBatch();
+            // Rows come ordered by account, so totals are written whenever an account is complete
+            // and enough rows have built up; only the accounts of one batch are held in memory
+            Totals totals = new Totals();
+            Long currentAccountId = null;
+            try (Stream<Object[]> rows = transactionRepository.streamForStatements()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    Long accountId = (Long) row[0];
+                    if (!accountId.equals(currentAccountId) && totals.rows.size() >= REBUILD_BATCH_ROWS) {
+                        written[0] += insertAll(totals);
+                        totals = new Totals();
+                    }
+                    currentAccountId = accountId;
+                    totals.add(accountId, (Integer) row[1], (Money) row[2], ((Timestamp) row[3]).getTime());
+                }
+            }
+            written[0] += insertAll(totals);
+        }));
+        logger.info("Rebuilt {} daily statement rows", written[0]);
+        return written[0];
+    }
+
+    private int insertAll(Totals totals) {
+        List<Map.Entry<DailyStatement.Key, Row>> rows = new ArrayList<>(totals.rows.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, entry) -> {
+            DailyStatement.Key key = entry.getKey();
+            Row row = entry.getValue();
+            statement.setLong(1, key.getAccountId());
+            statement.setObject(2, key.getStatementDate());
+            statement.setInt(3, key.getOperationTypeId());
+            statement.setLong(4, row.count);
+            statement.setBigDecimal(5, Money.ofCents(row.debitCents).toBigDecimal());
+            statement.setBigDecimal(6, Money.ofCents(row.creditCents).toBigDecimal());
+        });
+        return rows.size();
+    }
+
+    private void upsert(DailyStatement.Key key, Row row) {
+        jdbcTemplate.update(UPSERT_SQL, key.getAccountId(), key.getStatementDate(), key.getOperationTypeId(),
+                row.count, Money.ofCents(row.debitCents).toBigDecimal(), Money.ofCents(row.creditCents).toBigDecimal());
+    }
+
+    private boolean update(DailyStatement.Key key, Row row) {
+        if (dailyStatementRepository.add(key.getAccountId(), key.getStatementDate(), key.getOperationTypeId(),
+                row.count, Money.ofCents(row.debitCents).toBigDecimal(),
+                Money.ofCents(row.creditCents).toBigDecimal()) == 0) {
+            // The table was cleared or rebuilt under a running service; the row is inserted again
+            logger.debug("Daily statement row {} is gone", key);
+            knownKeys.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    private void pruneKnownKeys() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(knownKeysDay)) {
+            knownKeysDay = today;
+            LocalDate yesterday = today.minusDays(1);
+            knownKeys.removeIf(key -> key.getStatementDate().isBefore(yesterday));
+        }
+    }
+
+    /**
+     * Per-row deltas of a set of transactions, so a batch issues one UPDATE per account, day and type.
+     */
+    public static class Totals {
+        private final Map<DailyStatement.Key, Row> rows = new LinkedHashMap<>();
+
+        public void add(Long accountId, Integer operationTypeId, Money signedAmount, long eventTimeMillis) {
+            Row row = rows.computeIfAbsent(
+                    new DailyStatement.Key(accountId, statementDate(eventTimeMillis), operationTypeId),
+                    key -> new Row());
+            row.count++;
+            if (signedAmount.signum() < 0) {
+                row.debitCents = Math.addExact(row.debitCents, signedAmount.getCents());
+            } else {
+                row.creditCents = Math.addExact(row.creditCents, signedAmount.getCents());
+            }
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+    }
+
+    private static class Row {
+        private long count;
+        private long debitCents;
+        private long creditCents;
+    }
+}
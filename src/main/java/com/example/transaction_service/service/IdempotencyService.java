@@ -0,0 +1,141 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.cache.IdempotencyCache;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.IdempotencyRecord;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.UnprocessableRequestException;
+import com.example.transaction_service.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per Idempotency-Key. The key is recorded in the same database transaction
+ * as the write, so a retry either finds the original response or the write never committed. Recent
+ * keys are answered from IdempotencyCache; older ones fall back to the idempotency_keys table.
+ * A key comes with a hash of the request it was first used for, and reusing it for any other request
+ * is rejected rather than answered with the first response.
+ */
+@Service
+public class IdempotencyService {
+    public static final String CREATE_TRANSACTION = "CREATE_TRANSACTION";
+    public static final String PAY_INSTALLMENT = "PAY_INSTALLMENT";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyCache idempotencyCache;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public IdempotencyService(IdempotencyCache idempotencyCache, IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.idempotencyCache = idempotencyCache;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public TransactionResponseDTO execute(final String idempotencyKey, final String operation,
+                                          final Object request, final Supplier<TransactionResponseDTO> action) {
+        validateKey(idempotencyKey);
+        String requestHash = hash(request);
+
+        TransactionResponseDTO previous = findPrevious(idempotencyKey, operation, requestHash);
+        if (previous != null) {
+            logger.info("Replaying response for Idempotency-Key: {}", idempotencyKey);
+            return previous;
+        }
+
+        TransactionResponseDTO response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                TransactionResponseDTO result = action.get();
+                idempotencyRecordRepository.saveAndFlush(buildRecord(idempotencyKey, operation, requestHash, result));
+                return result;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request with the same key committed first and this write was rolled back
+            previous = findPrevious(idempotencyKey, operation, requestHash);
+            if (previous == null) {
+                throw ex;
+            }
+            return previous;
+        }
+
+        idempotencyCache.put(idempotencyKey, operation, requestHash, response);
+        return response;
+    }
+
+    private TransactionResponseDTO findPrevious(String idempotencyKey, String operation, String requestHash) {
+        IdempotencyCache.Entry entry = idempotencyCache.get(idempotencyKey);
+        if (entry != null) {
+            checkRequest(idempotencyKey, operation, requestHash, entry.getOperation(), entry.getRequestHash());
+            return entry.getResponse();
+        }
+
+        IdempotencyRecord record = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (record == null) {
+            return null;
+        }
+        checkRequest(idempotencyKey, operation, requestHash, record.getOperation(), record.getRequestHash());
+
+        TransactionResponseDTO response = new TransactionResponseDTO();
+        response.setTransactionId(record.getTransactionId());
+        response.setMessage(record.getMessage());
+        idempotencyCache.put(idempotencyKey, record.getOperation(), record.getRequestHash(), response);
+        return response;
+    }
+
+    // Rows recorded before request hashes were stored only have their operation to compare
+    private void checkRequest(String idempotencyKey, String operation, String requestHash, String recordedOperation,
+                              String recordedHash) {
+        if (!operation.equals(recordedOperation)
+                || (recordedHash != null && !Objects.equals(requestHash, recordedHash))) {
+            logger.error("Idempotency-Key {} reused for a different {} request, originally used for {}",
+                    idempotencyKey, operation, recordedOperation);
+            throw new UnprocessableRequestException("Idempotency-Key has already been used for a different request.");
+        }
+    }
+
+    // Hashes the bound request rather than the raw body, so formatting and field order do not matter
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not hash the request", ex);
+        }
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH
+                    + " characters.");
+        }
+    }
+
+    private IdempotencyRecord buildRecord(String idempotencyKey, String operation, String requestHash,
+                                          TransactionResponseDTO response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setOperation(operation);
+        record.setRequestHash(requestHash);
+        record.setTransactionId(response.getTransactionId());
+        record.setMessage(response.getMessage());
+        record.setCreatedAt(Instant.now());
+        return record;
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.exception.TooManyRequestsException;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.repository.AccountRepository;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional micro-batching of installment payments, enabled with
+ * {@code transaction.installment-payment.batching.enabled=true}. Callers queue their payment and wait while a
+ * single worker thread collects up to max-batch-size payments, or whatever arrives within max-delay-us of the
+ * first, and pays them per shard in one database transaction: one IN query for the installments, the
+ * conditional status updates and the summary updates as JDBC batches, and the INSTALLMENT_PAYMENT rows as one
+ * batched insert.
+ *
+ * <p>Every payment gets the result or error it would have had on its own. A missing installment, a wrong
+ * amount or an installment already paid fails only that payment, and a payment that loses the conditional
+ * update to another instance is rejected as already paid. If a batch cannot be written at all, its payments
+ * are retried one at a time through {@link TransactionService#payInstallmentByNumber}.
+ */
+@Service
+public class InstallmentPaymentBatcher implements ApplicationListener<ApplicationReadyEvent>, Closeable {
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final Logger logger = LoggerFactory.getLogger(InstallmentPaymentBatcher.class);
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final InstallmentRepository installmentRepository;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceLedger accountBalanceLedger;
+    private final InstallmentPaymentLocks installmentPaymentLocks;
+    private final TransactionOutbox transactionOutbox;
+    private final DailyStatementRollup dailyStatementRollup;
+    private final TransactionMetrics transactionMetrics;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingPayment> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public InstallmentPaymentBatcher(TransactionService transactionService,
+                                     TransactionRepository transactionRepository,
+                                     InstallmentRepository installmentRepository, AccountRepository accountRepository,
+                                     AccountBalanceLedger accountBalanceLedger,
+                                     InstallmentPaymentLocks installmentPaymentLocks,
+                                     TransactionOutbox transactionOutbox, DailyStatementRollup dailyStatementRollup,
+                                     TransactionMetrics transactionMetrics, ShardRouter shardRouter,
+                                     TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${transaction.installment-payment.batching.enabled:false}") boolean enabled,
+                                     @Value("${transaction.installment-payment.batching.max-batch-size:64}") int maxBatchSize,
+                                     @Value("${transaction.installment-payment.batching.max-delay-us:500}") long maxDelayMicros,
+                                     @Value("${transaction.installment-payment.batching.queue-capacity:10000}") int queueCapacity) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Installment payment batch size must be positive: " + maxBatchSize);
+        }
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.installmentRepository = installmentRepository;
+        this.accountRepository = accountRepository;
+        this.accountBalanceLedger = accountBalanceLedger;
+        this.installmentPaymentLocks = installmentPaymentLocks;
+        this.transactionOutbox = transactionOutbox;
+        this.dailyStatementRollup = dailyStatementRollup;
+        this.transactionMetrics = transactionMetrics;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("installment.payment.batch.size")
+                .description("Installment payments written per batch")
+                .register(meterRegistry);
+        Gauge.builder("installment.payment.batch.queued", queue, BlockingQueue::size)
+                .description("Installment payments waiting for the next batch")
+                .register(meterRegistry);
+        this.worker = enabled ? new Thread(this::run, "installment-payment-batcher") : null;
+        if (worker != null) {
+            worker.setDaemon(true);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (worker != null && worker.getState() == Thread.State.NEW) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues the payment for the next batch and waits for it to be written. Errors are thrown as they would be
+     * by {@link TransactionService#payInstallmentByNumber}.
+     */
+    public TransactionResponseDTO payInstallmentByNumber(final PayInstallmentRequestDTO payInstallmentRequest) {
+        try {
+            return submit(payInstallmentRequest).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<TransactionResponseDTO> submit(PayInstallmentRequestDTO request) {
+        if (!enabled || closed) {
+            throw new IllegalStateException("Installment payment batching is not running");
+        }
+        PendingPayment payment = new PendingPayment(request);
+        if (!queue.offer(payment)) {
+            throw new TooManyRequestsException("Too many installment payments waiting to be written", 1);
+        }
+        // close() may have failed what was queued between the check above and the offer
+        if (closed && queue.remove(payment)) {
+            throw new IllegalStateException("Installment payment batching is not running");
+        }
+        return payment.result;
+    }
+
+    private void run() {
+        List<PendingPayment> batch = new ArrayList<>(maxBatchSize);
+        try {
+            // Payments already queued when close() is called are still written
+            while (!closed || !queue.isEmpty()) {
+                boolean interrupted = false;
+                try {
+                    collect(batch);
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+                if (!batch.isEmpty()) {
+                    process(batch);
+                    batch.clear();
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        } finally {
+            closed = true;
+            failPending();
+        }
+    }
+
+    // Waits for a first payment, then for more until the batch is full or max-delay after the first has passed
+    private void collect(List<PendingPayment> batch) throws InterruptedException {
+        PendingPayment first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            PendingPayment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void process(List<PendingPayment> batch) {
+        batchSizes.record(batch.size());
+
+        // One database transaction per shard the batch touches; with a single shard that is the whole batch
+        Map<Integer, List<PendingPayment>> byShard = new TreeMap<>();
+        for (PendingPayment payment : batch) {
+            try {
+                byShard.computeIfAbsent(shardRouter.shardFor(payment.request.getAccountId()),
+                        shard -> new ArrayList<>()).add(payment);
+            } catch (RuntimeException ex) {
+                payment.result.completeExceptionally(ex);
+            }
+        }
+        byShard.forEach((shard, payments) -> {
+            // Synchronous payments of the same purchases on this instance wait for the batch to commit. The stripes
+            // are taken before the transaction starts; this thread is the only one holding more than one, so taking
+            // them in any order cannot deadlock.
+            List<InstallmentPaymentLocks.Stripe> stripes = new ArrayList<>();
+            boolean written = false;
+            try (ShardRouter.Binding ignored = shardRouter.bind(shard)) {
+                payments.stream().map(payment -> payment.request.getTransactionId()).distinct()
+                        .forEach(purchaseId -> stripes.add(installmentPaymentLocks.lock(purchaseId)));
+                transactionTemplate.executeWithoutResult(status -> pay(payments));
+                written = true;
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to write a batch of {} installment payments, paying them one at a time: {}",
+                        payments.size(), ex.getMessage());
+            } finally {
+                stripes.forEach(InstallmentPaymentLocks.Stripe::close);
+            }
+            if (written) {
+                payments.forEach(this::complete);
+            } else {
+                payments.forEach(this::payAlone);
+            }
+        });
+    }
+
+    private void pay(List<PendingPayment> payments) {
+        Set<Long> purchaseIds = new HashSet<>();
+        Set<Integer> installmentNumbers = new HashSet<>();
+        Set<Long> accountIds = new HashSet<>();
+        for (PendingPayment payment : payments) {
+            purchaseIds.add(payment.request.getTransactionId());
+            installmentNumbers.add(payment.request.getInstallmentNumber());
+            accountIds.add(payment.request.getAccountId());
+        }
+
+        Map<InstallmentKey, PayableInstallment> installments = new HashMap<>();
+        for (Object[] row : installmentRepository.findForPayment(purchaseIds, installmentNumbers)) {
+            PayableInstallment installment = new PayableInstallment((Long) row[0], (Money) row[3],
+                    (InstallmentStatus) row[4], (Long) row[5]);
+            installments.put(new InstallmentKey((Long) row[1], (Integer) row[2]), installment);
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        accountRepository.findAllById(accountIds).forEach(account -> accounts.put(account.getAccountId(), account));
+        Set<Long> existingPurchases = existingPurchases(payments, installments);
+
+        // Same checks, in the same order, as the synchronous path; an installment is claimed by the first
+        // valid payment for it in the batch
+        List<PendingPayment> accepted = new ArrayList<>(payments.size());
+        Set<Long> claimed = new HashSet<>();
+        for (PendingPayment payment : payments) {
+            PayInstallmentRequestDTO request = payment.request;
+            PayableInstallment installment = installments.get(InstallmentKey.of(request));
+            if (installment == null) {
+                payment.error = existingPurchases.contains(request.getTransactionId())
+                        ? new ResourceNotFoundException("Installment not found or already paid")
+                        : new ResourceNotFoundException("Transaction not found");
+            } else if (installment.status() == InstallmentStatus.PAID || claimed.contains(installment.id())) {
+                payment.error = new InvalidRequestException("Installment has already been paid.");
+            } else if (!request.getAmount().equals(installment.amount())) {
+                payment.error = new InvalidRequestException("Paid amount does not match the installment amount.");
+            } else if (!accounts.containsKey(request.getAccountId())) {
+                payment.error = new ResourceNotFoundException("Account not found with ID: " + request.getAccountId());
+            } else {
+                claimed.add(installment.id());
+                payment.installment = installment;
+                accepted.add(payment);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<PendingPayment> paid = markPaid(accepted);
+        if (paid.isEmpty()) {
+            return;
+        }
+        recordSummaryPayments(paid);
+
+        List<Transaction> transactions = new ArrayList<>(paid.size());
+        for (PendingPayment payment : paid) {
+            Long accountId = payment.request.getAccountId();
+            payment.transaction = transactionService.buildTransaction(accounts.get(accountId),
+                    OperationType.INSTALLMENT_PAYMENT, payment.request.getAmount());
+            transactions.add(payment.transaction);
+            accountBalanceLedger.record(accountId, payment.request.getAmount());
+        }
+        transactionRepository.saveAll(transactions);
+        transactionOutbox.recordAll(transactions);
+        dailyStatementRollup.recordAll(transactions);
+        logger.debug("Paid {} of {} batched installment payments", paid.size(), payments.size());
+    }
+
+    // Purchases of the payments whose installment was not found, so each can tell which of the two is missing
+    private Set<Long> existingPurchases(List<PendingPayment> payments,
+                                        Map<InstallmentKey, PayableInstallment> installments) {
+        Set<Long> unmatched = new HashSet<>();
+        for (PendingPayment payment : payments) {
+            if (!installments.containsKey(InstallmentKey.of(payment.request))) {
+                unmatched.add(payment.request.getTransactionId());
+            }
+        }
+        return unmatched.isEmpty() ? Set.of() : new HashSet<>(transactionRepository.findExistingIds(unmatched));
+    }
+
+    // InstallmentRepository.markPaid for the whole batch. Returns the payments that won.
+    private List<PendingPayment> markPaid(List<PendingPayment> accepted) {
+        SqlParameterSource[] parameters = new SqlParameterSource[accepted.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            PendingPayment payment = accepted.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("id", payment.installment.id())
+                    .addValue("version", payment.installment.version());
+        }
+        int[] counts = jdbcTemplate.batchUpdate(InstallmentRepository.MARK_PAID_SQL, parameters);
+
+        List<PendingPayment> paid = new ArrayList<>(accepted.size());
+        for (int i = 0; i < counts.length; i++) {
+            PendingPayment payment = accepted.get(i);
+            if (counts[i] == 0) {
+                logger.warn("Installment {} of transaction {} was paid concurrently",
+                        payment.request.getInstallmentNumber(), payment.request.getTransactionId());
+                payment.error = new InvalidRequestException("Installment has already been paid.");
+            } else {
+                paid.add(payment);
+            }
+        }
+        return paid;
+    }
+
+    // InstallmentSummaryRepository.recordPayment for the whole batch. Runs after every installment of the batch is
+    // marked paid, so the next installment number skips all of them.
+    private void recordSummaryPayments(List<PendingPayment> paid) {
+        SqlParameterSource[] parameters = new SqlParameterSource[paid.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            PendingPayment payment = paid.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("transactionId", payment.request.getTransactionId())
+                    .addValue("installmentNumber", payment.request.getInstallmentNumber())
+                    .addValue("amount", payment.installment.amount().toBigDecimal());
+        }
+        jdbcTemplate.batchUpdate(InstallmentSummaryRepository.RECORD_PAYMENT_SQL, parameters);
+    }
+
+    private void payAlone(PendingPayment payment) {
+        try {
+            payment.result.complete(transactionService.payInstallmentByNumber(payment.request));
+        } catch (RuntimeException ex) {
+            payment.result.completeExceptionally(ex);
+        }
+    }
+
+    private void complete(PendingPayment payment) {
+        if (payment.error != null) {
+            payment.result.completeExceptionally(payment.error);
+            return;
+        }
+        transactionMetrics.transactionCreated(OperationType.INSTALLMENT_PAYMENT);
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(payment.transaction.getTransactionId());
+        responseDTO.setMessage("Installment payment successful");
+        payment.result.complete(responseDTO);
+    }
+
+    private void failPending() {
+        PendingPayment payment;
+        while ((payment = queue.poll()) != null) {
+            payment.result.completeExceptionally(
+                    new IllegalStateException("Installment payment batching was shut down"));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (worker != null && worker.isAlive()) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failPending();
+    }
+
+    private record InstallmentKey(Long transactionId, Integer installmentNumber) {
+        private static InstallmentKey of(PayInstallmentRequestDTO request) {
+            return new InstallmentKey(request.getTransactionId(), request.getInstallmentNumber());
+        }
+    }
+
+    private record PayableInstallment(Long id, Money amount, InstallmentStatus status, Long version) {
+    }
+
+    private static final class PendingPayment {
+        private final PayInstallmentRequestDTO request;
+        private final CompletableFuture<TransactionResponseDTO> result = new CompletableFuture<>();
+        private PayableInstallment installment;
+        private Transaction transaction;
+        private RuntimeException error;
+
+        private PendingPayment(PayInstallmentRequestDTO request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.transaction_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that serialises payments for the same purchase inside this instance. A retry or
+ * duplicate request then waits for the first payment to commit and sees the installment as paid,
+ * instead of racing it to the database. Correctness does not depend on this lock: the conditional
+ * UPDATE in InstallmentRepository.markPaid is what guarantees exactly-once payment across instances.
+ *
+ * <p>A stripe is taken before the database transaction starts, so a waiting payment holds no pooled
+ * connection; unrelated purchases that share a stripe only wait for each other's transaction.
+ */
+@Component
+public class InstallmentPaymentLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public InstallmentPaymentLocks(@Value("${transaction.installment-payment.lock-stripes:4096}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Locks the stripe of {@code transactionId} until the returned stripe is closed. Must be called before the
+     * payment's database transaction starts and closed after it completes. Inside a transaction the stripe can
+     * only be taken again by a caller that locked it before starting that transaction.
+     */
+    public Stripe lock(long transactionId) {
+        ReentrantLock lock = stripes[stripe(transactionId)];
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Installment payment lock must be taken before the transaction starts");
+        }
+        lock.lock();
+        return lock::unlock;
+    }
+
+    // Spread sequential ids across stripes (Fibonacci hashing)
+    private int stripe(long transactionId) {
+        return (int) ((transactionId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    public interface Stripe extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
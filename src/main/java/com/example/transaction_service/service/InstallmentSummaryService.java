@@ -0,0 +1,71 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.InstallmentSummary;
+import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reads what is left to pay on a purchase with installments. The figures are maintained by TransactionService
+ * and the batch path, so a read is a primary key lookup on installment_summaries.
+ */
+@Service
+public class InstallmentSummaryService {
+    private final InstallmentSummaryRepository installmentSummaryRepository;
+    private final InstallmentRepository installmentRepository;
+    private final ShardRouter shardRouter;
+
+    public InstallmentSummaryService(InstallmentSummaryRepository installmentSummaryRepository,
+                                     InstallmentRepository installmentRepository, ShardRouter shardRouter) {
+        this.installmentSummaryRepository = installmentSummaryRepository;
+        this.installmentRepository = installmentRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @Transactional(readOnly = true)
+    public InstallmentSummaryResponseDTO getSummary(final Long transactionId) {
+        try (ShardRouter.Binding ignored = shardRouter.bindTransaction(transactionId)) {
+            InstallmentSummary summary = installmentSummaryRepository.findById(transactionId).orElse(null);
+            if (summary != null) {
+                return new InstallmentSummaryResponseDTO(summary.getTransactionId(), summary.getRemainingCount(),
+                        summary.getRemainingAmount(), summary.getNextInstallmentNumber());
+            }
+
+            // Purchases made before summaries were maintained are aggregated from their installments
+            List<Installment> installments = installmentRepository.findByTransactionTransactionId(transactionId);
+            if (installments.isEmpty()) {
+                throw new ResourceNotFoundException("No installments found for transaction ID: " + transactionId);
+            }
+            return summarize(transactionId, installments);
+        }
+    }
+
+    private InstallmentSummaryResponseDTO summarize(Long transactionId, List<Installment> installments) {
+        int remainingCount = 0;
+        long remainingCents = 0;
+        Integer nextInstallmentNumber = null;
+        for (Installment installment : installments) {
+            if (installment.getStatus() == InstallmentStatus.PAID) {
+                continue;
+            }
+            remainingCount++;
+            if (installment.getInstallmentAmount() != null) {
+                remainingCents = Math.addExact(remainingCents, installment.getInstallmentAmount().getCents());
+            }
+            if (nextInstallmentNumber == null || installment.getInstallmentNumber() < nextInstallmentNumber) {
+                nextInstallmentNumber = installment.getInstallmentNumber();
+            }
+        }
+        return new InstallmentSummaryResponseDTO(transactionId, remainingCount,
+                Money.ofCents(remainingCents).toBigDecimal(), nextInstallmentNumber);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.response.StatementDayDTO;
+import com.example.transaction_service.dto.response.StatementResponseDTO;
+import com.example.transaction_service.entity.DailyStatement;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.DailyStatementRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Account statements over a range of UTC days, read from the daily_statements rollup maintained by
+ * DailyStatementRollup, so a statement reads at most one row per day and operation type however many
+ * transactions the account has.
+ */
+@Service
+public class StatementService {
+    private static final int MAX_DAYS = 366;
+
+    private final DailyStatementRepository dailyStatementRepository;
+    private final AccountService accountService;
+    private final ShardRouter shardRouter;
+    private final Clock clock;
+
+    @Autowired
+    public StatementService(DailyStatementRepository dailyStatementRepository, AccountService accountService,
+                            ShardRouter shardRouter) {
+        this(dailyStatementRepository, accountService, shardRouter, Clock.systemUTC());
+    }
+
+    public StatementService(DailyStatementRepository dailyStatementRepository, AccountService accountService,
+                            ShardRouter shardRouter, Clock clock) {
+        this.dailyStatementRepository = dailyStatementRepository;
+        this.accountService = accountService;
+        this.shardRouter = shardRouter;
+        this.clock = clock;
+    }
+
+    /**
+     * Statement for the days {@code from} to {@code to}, both included. {@code to} defaults to today and
+     * {@code from} to the first day of the month of {@code to}.
+     */
+    @Transactional(readOnly = true)
+    public StatementResponseDTO getStatement(final Long accountId, final LocalDate from, final LocalDate to) {
+        try (ShardRouter.Binding ignored = shardRouter.bindAccount(accountId)) {
+            LocalDate end = to == null ? LocalDate.now(clock) : to;
+            LocalDate start = from == null ? end.withDayOfMonth(1) : from;
+            if (start.isAfter(end)) {
+                throw new InvalidRequestException("from must not be after to.");
+            }
+            if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+                throw new InvalidRequestException("A statement can cover at most " + MAX_DAYS + " days.");
+            }
+
+            // Raises ResourceNotFoundException for unknown accounts, usually from the account cache
+            accountService.getAccountById(accountId);
+
+            List<DailyStatement> rows = dailyStatementRepository
+                    .findByAccountIdAndStatementDateBetweenOrderByStatementDateAscOperationTypeIdAsc(accountId,
+                            start, end);
+            List<StatementDayDTO> days = new ArrayList<>(rows.size());
+            long transactionCount = 0;
+            Money debits = Money.ZERO;
+            Money credits = Money.ZERO;
+            for (DailyStatement row : rows) {
+                // Rows inserted by a transaction that then rolled back stay behind empty
+                if (row.getTransactionCount() == 0) {
+                    continue;
+                }
+                Money dayDebits = Money.of(row.getDebitTotal());
+                Money dayCredits = Money.of(row.getCreditTotal());
+                days.add(new StatementDayDTO(row.getStatementDate(), row.getOperationTypeId(),
+                        row.getTransactionCount(), dayDebits, dayCredits));
+                transactionCount += row.getTransactionCount();
+                debits = debits.plus(dayDebits);
+                credits = credits.plus(dayCredits);
+            }
+            return new StatementResponseDTO(accountId, start, end, transactionCount, debits, credits, days);
+        }
+    }
+}
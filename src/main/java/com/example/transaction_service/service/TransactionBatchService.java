@@ -0,0 +1,263 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResponseDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResultDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.InstallmentSummary;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.repository.AccountRepository;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.scheduler.InstallmentScheduler;
+import com.example.transaction_service.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion of transactions. The request body (a JSON array or NDJSON) is read one element at a
+ * time and valid rows are committed in chunks, so neither the payload nor the persistence context
+ * grows with the size of the upload. Created rows are only counted; the response lists failed rows.
+ */
+@Service
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final InstallmentRepository installmentRepository;
+    private final InstallmentSummaryRepository installmentSummaryRepository;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceLedger accountBalanceLedger;
+    private final InstallmentScheduler installmentScheduler;
+    private final TransactionOutbox transactionOutbox;
+    private final DailyStatementRollup dailyStatementRollup;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionBatchService.class);
+
+    public TransactionBatchService(TransactionService transactionService, TransactionRepository transactionRepository,
+                                   InstallmentRepository installmentRepository,
+                                   InstallmentSummaryRepository installmentSummaryRepository,
+                                   AccountRepository accountRepository,
+                                   AccountBalanceLedger accountBalanceLedger, InstallmentScheduler installmentScheduler,
+                                   TransactionOutbox transactionOutbox, DailyStatementRollup dailyStatementRollup,
+                                   ShardRouter shardRouter, TransactionTemplate transactionTemplate,
+                                   EntityManager entityManager,
+                                   ObjectMapper objectMapper, Validator validator,
+                                   @Value("${transaction.batch.chunk-size:500}") int chunkSize) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.installmentRepository = installmentRepository;
+        this.installmentSummaryRepository = installmentSummaryRepository;
+        this.accountRepository = accountRepository;
+        this.accountBalanceLedger = accountBalanceLedger;
+        this.installmentScheduler = installmentScheduler;
+        this.transactionOutbox = transactionOutbox;
+        this.dailyStatementRollup = dailyStatementRollup;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.requestReader = objectMapper.readerFor(TransactionRequestDTO.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchTransactionResponseDTO ingest(final InputStream body) throws IOException {
+        BatchTransactionResponseDTO response = new BatchTransactionResponseDTO();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        try (MappingIterator<TransactionRequestDTO> rows = requestReader.readValues(body)) {
+            while (true) {
+                TransactionRequestDTO request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    request = rows.nextValue();
+                } catch (JsonProcessingException ex) {
+                    // The stream cannot be resynchronised after a syntax error, so stop at this row
+                    logger.error("Malformed batch element at index {}: {}", index, ex.getOriginalMessage());
+                    chunk.add(PendingRow.rejected(index++, "Malformed transaction: " + ex.getOriginalMessage()));
+                    break;
+                }
+
+                chunk.add(validate(index++, request));
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, response);
+                }
+            }
+        } finally {
+            writeChunk(chunk, response);
+            response.setReceived(index);
+        }
+
+        logger.info("Batch ingestion finished: received {}, created {}, failed {}",
+                response.getReceived(), response.getCreated(), response.getFailed());
+        return response;
+    }
+
+    private PendingRow validate(int index, TransactionRequestDTO request) {
+        Set<ConstraintViolation<TransactionRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return PendingRow.rejected(index, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        try {
+            transactionService.validateAmount(request.getAmount());
+            OperationType operationType = transactionService.validateOperationType(request.getOperationTypeId());
+            if (operationType.requiresInstallments()
+                    && (request.getInstallments() == null || request.getInstallments().isEmpty())) {
+                return PendingRow.rejected(index, "Installments are required for a purchase with installments.");
+            }
+            return new PendingRow(index, request, operationType,
+                    transactionService.adjustAmount(operationType, request.getAmount()));
+        } catch (InvalidRequestException ex) {
+            return PendingRow.rejected(index, ex.getMessage());
+        }
+    }
+
+    private void writeChunk(List<PendingRow> chunk, BatchTransactionResponseDTO response) {
+        // One database transaction per shard the chunk touches; with a single shard that is the whole chunk
+        Map<Integer, List<PendingRow>> acceptedByShard = new TreeMap<>();
+        for (PendingRow row : chunk) {
+            Integer shard = row.error == null ? shardOf(row) : null;
+            if (shard != null) {
+                acceptedByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(row);
+            }
+        }
+        acceptedByShard.forEach((shard, accepted) -> {
+            try (ShardRouter.Binding ignored = shardRouter.bind(shard)) {
+                transactionTemplate.execute(status -> {
+                    persist(accepted);
+                    return null;
+                });
+            } catch (RuntimeException ex) {
+                logger.error("Failed to write batch chunk of {} rows: {}", accepted.size(), ex.getMessage());
+                accepted.forEach(row -> row.error = "Chunk could not be written: " + ex.getMessage());
+            } finally {
+                // Detach the chunk so the persistence context stays flat for the whole upload
+                entityManager.clear();
+            }
+        });
+
+        for (PendingRow row : chunk) {
+            if (row.error == null) {
+                response.addCreated();
+            } else {
+                response.addFailure(BatchTransactionResultDTO.failed(row.index, row.error));
+            }
+        }
+        chunk.clear();
+    }
+
+    // Unknown shards are reported as a missing account, like any other account that does not exist
+    private Integer shardOf(PendingRow row) {
+        try {
+            return shardRouter.shardFor(row.request.getAccountId());
+        } catch (ResourceNotFoundException ex) {
+            row.error = ex.getMessage();
+            return null;
+        }
+    }
+
+    private void persist(List<PendingRow> rows) {
+        Set<Long> accountIds = new HashSet<>();
+        rows.forEach(row -> accountIds.add(row.request.getAccountId()));
+
+        Map<Long, Account> accounts = new HashMap<>();
+        accountRepository.findAllById(accountIds).forEach(account -> accounts.put(account.getAccountId(), account));
+
+        List<Transaction> transactions = new ArrayList<>(rows.size());
+        List<Installment> installments = new ArrayList<>();
+        for (PendingRow row : rows) {
+            Account account = accounts.get(row.request.getAccountId());
+            if (account == null) {
+                row.error = "Account not found with ID: " + row.request.getAccountId();
+                continue;
+            }
+
+            row.transaction = transactionService.buildTransaction(account, row.operationType, row.adjustedAmount);
+            transactions.add(row.transaction);
+            accountBalanceLedger.record(account.getAccountId(), row.adjustedAmount);
+            if (row.operationType.requiresInstallments()) {
+                row.schedule = transactionService.buildSchedule(row.transaction, row.request.getInstallments());
+                installments.addAll(row.schedule);
+            }
+        }
+
+        transactionRepository.saveAll(transactions);
+        transactionOutbox.recordAll(transactions);
+        dailyStatementRollup.recordAll(transactions);
+        installmentRepository.saveAll(installments);
+
+        // Summaries are keyed by the purchase id, which is only assigned by saveAll
+        List<InstallmentSummary> summaries = new ArrayList<>();
+        for (PendingRow row : rows) {
+            if (row.schedule != null) {
+                summaries.add(transactionService.buildSummary(row.transaction, row.schedule));
+            }
+        }
+        installmentSummaryRepository.saveAll(summaries);
+        installmentScheduler.track(installments);
+        entityManager.flush();
+    }
+
+    private static final class PendingRow {
+        private final int index;
+        private final TransactionRequestDTO request;
+        private final OperationType operationType;
+        private final Money adjustedAmount;
+        private Transaction transaction;
+        private List<Installment> schedule;
+        private String error;
+
+        private PendingRow(int index, TransactionRequestDTO request, OperationType operationType,
+                           Money adjustedAmount) {
+            this.index = index;
+            this.request = request;
+            this.operationType = operationType;
+            this.adjustedAmount = adjustedAmount;
+        }
+
+        private static PendingRow rejected(int index, String error) {
+            PendingRow row = new PendingRow(index, null, null, null);
+            row.error = error;
+            return row;
+        }
+    }
+}
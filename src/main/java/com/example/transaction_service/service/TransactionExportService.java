@@ -0,0 +1,207 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.enums.ExportFormat;
+import com.example.transaction_service.enums.ExportTable;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams a whole table as CSV or NDJSON. Rows come from a forward-only cursor as scalar tuples, which the
+ * persistence context never holds, and are written straight to the output, so memory use does not depend on
+ * the table size. On MySQL the cursor fetches 1,000 rows at a time only when the JDBC URL sets
+ * {@code useCursorFetch=true}; otherwise the driver buffers the whole result set before the first row.
+ */
+@Service
+public class TransactionExportService {
+    private final TransactionRepository transactionRepository;
+    private final InstallmentRepository installmentRepository;
+    private final JsonFactory jsonFactory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    InstallmentRepository installmentRepository, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.transactionRepository = transactionRepository;
+        this.installmentRepository = installmentRepository;
+        this.jsonFactory = objectMapper.getFactory();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+    }
+
+    public ExportTable resolveTable(String name) {
+        try {
+            return ExportTable.fromName(name);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+    }
+
+    public ExportFormat resolveFormat(String name) {
+        try {
+            return ExportFormat.fromName(name);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes every row of the table to {@code out} and returns the number of rows written. The stream is
+     * flushed but not closed.
+     */
+    public long export(ExportTable table, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.CSV
+                ? new CsvRowWriter(writer, table.getColumns())
+                : new NdjsonRowWriter(jsonFactory.createGenerator(writer), table.getColumns());
+
+        long[] rows = new long[1];
+        try {
+            // Shard by shard, each in its own read-only transaction
+            shardRouter.forEachShard(shard -> rows[0] += readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> stream = open(table)) {
+                    long count = 0;
+                    Iterator<Object[]> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(iterator.next());
+                        count++;
+                    }
+                    return count;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            // Usually the client went away mid-download
+            throw ex.getCause();
+        }
+
+        rowWriter.finish();
+        writer.flush();
+        logger.info("Exported {} rows from {} as {}", rows[0], table.getName(), format.getExtension());
+        return rows[0];
+    }
+
+    private Stream<Object[]> open(ExportTable table) {
+        return switch (table) {
+            case TRANSACTIONS -> transactionRepository.streamAllForExport();
+            case INSTALLMENTS -> installmentRepository.streamAllForExport();
+        };
+    }
+
+    private interface RowWriter {
+        void write(Object[] row) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer, List<String> columns) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        // None of the exported columns can contain a comma, quote or newline, so values are not quoted
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writer.write(format(row[i]));
+                }
+            }
+            writer.write('\n');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<String> columns;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(JsonGenerator generator, List<String> columns) {
+            this.generator = generator;
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            empty = false;
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                Object value = row[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof BigDecimal number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Money amount) {
+                    generator.writeNumber(amount.toString());
+                } else {
+                    generator.writeString(format(value));
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // The pretty printer only separates records, so terminate the last one
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+
+    private static String format(Object value) {
+        if (value instanceof BigDecimal amount) {
+            return amount.toPlainString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Read side of an account's transactions. Pages are addressed by an opaque cursor holding the
+ * (event_date, transaction_id) of the last row returned, rather than by page number.
+ */
+@Service
+public class TransactionHistoryService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final ShardRouter shardRouter;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryService.class);
+
+    public TransactionHistoryService(TransactionRepository transactionRepository, AccountService accountService,
+                                     ShardRouter shardRouter) {
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.shardRouter = shardRouter;
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionHistoryPageDTO getTransactions(final Long accountId, final Integer operationTypeId,
+                                                     final Instant from, final Instant to, final String cursor,
+                                                     final Integer limit) {
+        try (ShardRouter.Binding ignored = shardRouter.bindAccount(accountId)) {
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+            }
+            if (operationTypeId != null && OperationType.find(operationTypeId) == null) {
+                throw new InvalidRequestException("Invalid OperationType ID: " + operationTypeId);
+            }
+            if (from != null && to != null && !from.isBefore(to)) {
+                throw new InvalidRequestException("from must be before to.");
+            }
+
+            // Raises ResourceNotFoundException for unknown accounts, usually from the account cache
+            accountService.getAccountById(accountId);
+
+            Position after = cursor == null ? null : decodeCursor(cursor);
+
+            // One extra row tells us whether another page exists without a count query
+            List<TransactionHistoryItemDTO> rows = transactionRepository.findHistoryPage(accountId, operationTypeId,
+                    from, to, after == null ? null : after.eventDate(), after == null ? null : after.transactionId(),
+                    pageSize + 1);
+            if (rows.size() <= pageSize) {
+                return new TransactionHistoryPageDTO(rows, null);
+            }
+
+            List<TransactionHistoryItemDTO> page = rows.subList(0, pageSize);
+            TransactionHistoryItemDTO last = page.get(pageSize - 1);
+            return new TransactionHistoryPageDTO(page, encodeCursor(last.getEventDate(), last.getTransactionId()));
+        }
+    }
+
+    private static String encodeCursor(Instant eventDate, Long transactionId) {
+        String position = eventDate + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Position decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII)
+                    .split("\\|");
+            if (position.length == 2) {
+                return new Position(Instant.parse(position[0]), Long.valueOf(position[1]));
+            }
+        } catch (RuntimeException ex) {
+            // fall through to the error below
+        }
+        logger.error("Invalid transaction history cursor: {}", cursor);
+        throw new InvalidRequestException("Invalid cursor.");
+    }
+
+    private record Position(Instant eventDate, Long transactionId) {
+    }
+}
@@ -1,99 +1,162 @@
 package com.example.transaction_service.service;
 
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.cache.KnownAccountIds;
 import com.example.transaction_service.dto.request.InstallmentDTO;
 import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
 import com.example.transaction_service.dto.request.TransactionRequestDTO;
 import com.example.transaction_service.dto.response.TransactionResponseDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.InstallmentSummary;
 import com.example.transaction_service.entity.Transaction;
 import com.example.transaction_service.enums.InstallmentStatus;
 import com.example.transaction_service.exception.InvalidRequestException;
 import com.example.transaction_service.exception.ResourceNotFoundException;
 import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.metrics.TransactionMetrics.Stage;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
 import com.example.transaction_service.repository.AccountRepository;
 import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
 import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.scheduler.InstallmentScheduler;
+import com.example.transaction_service.sharding.ShardRouter;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
     private final InstallmentRepository installmentRepository;
+    private final InstallmentSummaryRepository installmentSummaryRepository;
+    private final AccountCache accountCache;
+    private final KnownAccountIds knownAccountIds;
+    private final AccountBalanceLedger accountBalanceLedger;
+    private final InstallmentPaymentLocks installmentPaymentLocks;
+    private final InstallmentScheduler installmentScheduler;
+    private final TransactionOutbox transactionOutbox;
+    private final DailyStatementRollup dailyStatementRollup;
+    private final TransactionMetrics transactionMetrics;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
     public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository,
-                              InstallmentRepository installmentRepository) {
+                              InstallmentRepository installmentRepository,
+                              InstallmentSummaryRepository installmentSummaryRepository, AccountCache accountCache,
+                              KnownAccountIds knownAccountIds, AccountBalanceLedger accountBalanceLedger,
+                              InstallmentPaymentLocks installmentPaymentLocks,
+                              InstallmentScheduler installmentScheduler, TransactionOutbox transactionOutbox,
+                              DailyStatementRollup dailyStatementRollup, TransactionMetrics transactionMetrics,
+                              ShardRouter shardRouter, TransactionTemplate transactionTemplate) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.installmentRepository = installmentRepository;
+        this.installmentSummaryRepository = installmentSummaryRepository;
+        this.accountCache = accountCache;
+        this.knownAccountIds = knownAccountIds;
+        this.accountBalanceLedger = accountBalanceLedger;
+        this.installmentPaymentLocks = installmentPaymentLocks;
+        this.installmentScheduler = installmentScheduler;
+        this.transactionOutbox = transactionOutbox;
+        this.dailyStatementRollup = dailyStatementRollup;
+        this.transactionMetrics = transactionMetrics;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
     public TransactionResponseDTO createTransaction(final TransactionRequestDTO transactionDTO) {
-        // Validate transaction amount
-        if (transactionDTO.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            logger.error("Transaction amount must be greater than zero, provided: {}", transactionDTO.getAmount());
-            throw new InvalidRequestException("Transaction amount must be greater than zero.");
+        // Bound before the database transaction starts: the inserts are flushed at commit, after any binding
+        // opened inside the transaction would already be closed
+        try (ShardRouter.Binding ignored = shardRouter.bindAccount(transactionDTO.getAccountId())) {
+            return transactionTemplate.execute(status -> create(transactionDTO));
         }
+    }
+
+    private TransactionResponseDTO create(TransactionRequestDTO transactionDTO) {
+        long mark = transactionMetrics.start();
+
+        // Validate transaction amount
+        validateAmount(transactionDTO.getAmount());
 
         // Validate operation type ID
         OperationType operationType = validateOperationType(transactionDTO.getOperationTypeId());
 
         // Adjust the transaction amount based on the operation type
-        // Convert to negative for purchases/withdrawals/purchase_with_installment
-        BigDecimal adjustedAmount = transactionDTO.getAmount();
-
-        if (operationType == OperationType.NORMAL_PURCHASE || operationType == OperationType.WITHDRAWAL ||
-                operationType == OperationType.PURCHASE_INSTALLMENTS) {
-            adjustedAmount = transactionDTO.getAmount().negate();
-        }
+        Money adjustedAmount = adjustAmount(operationType, transactionDTO.getAmount());
+        mark = transactionMetrics.lap(Stage.CREATE_VALIDATE, mark);
 
         // Retrieve the account and handle if it does not exist
-        Account account = findAccountById(transactionDTO.getAccountId());
+        Account account = getAccountReference(transactionDTO.getAccountId());
+        mark = transactionMetrics.lap(Stage.CREATE_ACCOUNT_LOOKUP, mark);
 
         // Create and save transaction
         Transaction transaction = buildTransaction(account, operationType, adjustedAmount);
 
-        if (operationType == OperationType.PURCHASE_INSTALLMENTS) {
-            return getTransactionResponseDTO(createTransactionWithInstallments(transaction, transactionDTO), account);
+        if (operationType.requiresInstallments()) {
+            Transaction savedTransaction = createTransactionWithInstallments(transaction, transactionDTO);
+            accountBalanceLedger.record(transactionDTO.getAccountId(), adjustedAmount);
+            transactionMetrics.transactionCreated(operationType);
+            return getTransactionResponseDTO(savedTransaction, account);
         }
 
         Transaction savedTransaction = transactionRepository.save(transaction);
-        logger.info("Created transaction with ID: {}", savedTransaction.getTransactionId());
+        transactionOutbox.record(savedTransaction);
+        dailyStatementRollup.record(savedTransaction);
+        transactionMetrics.lap(Stage.CREATE_INSERT, mark);
+        accountBalanceLedger.record(transactionDTO.getAccountId(), adjustedAmount);
+        transactionMetrics.transactionCreated(operationType);
+        logger.debug("Created transaction with ID: {}", savedTransaction.getTransactionId());
 
         return getTransactionResponseDTO(savedTransaction, account);
     }
 
     @Transactional
     public Transaction createTransactionWithInstallments(Transaction transaction, TransactionRequestDTO transactionDTO) {
+        long mark = transactionMetrics.start();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionOutbox.record(savedTransaction);
+        dailyStatementRollup.record(savedTransaction);
+        mark = transactionMetrics.lap(Stage.INSTALLMENTS_INSERT, mark);
 
-        // Create individual installment records and link them to the transaction
-        int installmentNumber = 1;
-        for (InstallmentDTO installments : transactionDTO.getInstallments()) {
-            Installment installment = new Installment();
-            installment.setTransaction(savedTransaction);
-            installment.setInstallmentNumber(installmentNumber);
-            installment.setInstallmentAmount(installments.getAmount());
-            installment.setStatus(InstallmentStatus.PENDING);
-            installmentRepository.save(installment);
-
-            installmentNumber++;
-        }
+        // Create individual installment records and link them to the transaction,
+        // then write the whole schedule in a single batched insert
+        List<Installment> schedule = buildSchedule(savedTransaction, transactionDTO.getInstallments());
+        installmentRepository.saveAll(schedule);
+        installmentSummaryRepository.save(buildSummary(savedTransaction, schedule));
+        installmentScheduler.track(schedule);
+        transactionMetrics.lap(Stage.INSTALLMENTS_SCHEDULE, mark);
 
         return savedTransaction;
     }
 
-    @Transactional
-    public void payInstallmentByNumber(final PayInstallmentRequestDTO payInstallmentRequest) {
+    public TransactionResponseDTO payInstallmentByNumber(final PayInstallmentRequestDTO payInstallmentRequest) {
+        try (ShardRouter.Binding ignored = shardRouter.bindAccount(payInstallmentRequest.getAccountId())) {
+            long start = transactionMetrics.start();
+
+            // Payments for the same purchase queue here, before the database transaction starts, until the
+            // previous one commits or rolls back
+            try (InstallmentPaymentLocks.Stripe stripe =
+                         installmentPaymentLocks.lock(payInstallmentRequest.getTransactionId())) {
+                long mark = transactionMetrics.lap(Stage.PAY_LOCK, start);
+                return transactionTemplate.execute(status -> payInstallment(payInstallmentRequest, mark));
+            }
+        }
+    }
+
+    private TransactionResponseDTO payInstallment(PayInstallmentRequestDTO payInstallmentRequest, long mark) {
         // Step 1: Find the transaction and its corresponding installment
         Transaction transaction = transactionRepository.findById(payInstallmentRequest.getTransactionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
@@ -102,21 +165,49 @@ public class TransactionService {
                         payInstallmentRequest.getInstallmentNumber())
                 .orElseThrow(() -> new ResourceNotFoundException("Installment not found or already paid"));
 
+        if (installment.getStatus() == InstallmentStatus.PAID) {
+            logger.debug("Installment {} of transaction {} is already paid", installment.getInstallmentNumber(),
+                    payInstallmentRequest.getTransactionId());
+            throw new InvalidRequestException("Installment has already been paid.");
+        }
+
         // Step 2: Check if the amount matches the installment amount
-        if (installment.getInstallmentAmount().compareTo(payInstallmentRequest.getAmount()) != 0) {
+        if (!installment.getInstallmentAmount().equals(payInstallmentRequest.getAmount())) {
             throw new InvalidRequestException("Paid amount does not match the installment amount.");
         }
+        mark = transactionMetrics.lap(Stage.PAY_LOOKUP, mark);
+
+        // Step 3: Mark the installment as paid, only if it is still unpaid at the version we read.
+        // A concurrent payment from another instance makes this match no row. Rows written before the
+        // version column existed have none, which markPaid reads as 0.
+        long version = installment.getVersion() == null ? 0L : installment.getVersion();
+        if (installmentRepository.markPaid(installment.getId(), version) == 0) {
+            logger.warn("Installment {} of transaction {} was paid concurrently", installment.getInstallmentNumber(),
+                    payInstallmentRequest.getTransactionId());
+            throw new InvalidRequestException("Installment has already been paid.");
+        }
+        if (installmentSummaryRepository.recordPayment(transaction.getTransactionId(),
+                installment.getInstallmentNumber(), installment.getInstallmentAmount().toBigDecimal()) == 0) {
+            logger.debug("Transaction {} has no installment summary", transaction.getTransactionId());
+        }
+        mark = transactionMetrics.lap(Stage.PAY_MARK_PAID, mark);
 
-        // Step 3: Create a new transaction for the installment payment
+        // Step 4: Create a new transaction for the installment payment
         Transaction installmentPaymentTransaction = new Transaction();
-        installmentPaymentTransaction.setAccount(findAccountById(payInstallmentRequest.getAccountId()));
+        installmentPaymentTransaction.setAccount(getAccountReference(payInstallmentRequest.getAccountId()));
         installmentPaymentTransaction.setOperationTypeId(OperationType.INSTALLMENT_PAYMENT.getId());
         installmentPaymentTransaction.setAmount(payInstallmentRequest.getAmount());
-        transactionRepository.save(installmentPaymentTransaction);
+        Transaction savedPayment = transactionRepository.save(installmentPaymentTransaction);
+        transactionOutbox.record(savedPayment);
+        dailyStatementRollup.record(savedPayment);
+        transactionMetrics.lap(Stage.PAY_INSERT, mark);
+        accountBalanceLedger.record(payInstallmentRequest.getAccountId(), payInstallmentRequest.getAmount());
+        transactionMetrics.transactionCreated(OperationType.INSTALLMENT_PAYMENT);
 
-        // Step 4: Mark the installment as paid
-        installment.setStatus(InstallmentStatus.PAID);
-        installmentRepository.save(installment);
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(savedPayment.getTransactionId());
+        responseDTO.setMessage("Installment payment successful");
+        return responseDTO;
     }
 
     private TransactionResponseDTO getTransactionResponseDTO(Transaction savedTransaction, Account account) {
@@ -127,24 +218,89 @@ public class TransactionService {
         return responseDTO;
     }
 
-    private OperationType validateOperationType(int operationTypeId) {
-        try {
-            return OperationType.fromId(operationTypeId);
-        } catch (IllegalArgumentException ex) {
-            logger.error("Invalid operation type ID: {}", operationTypeId);
-            throw new InvalidRequestException(ex.getMessage());
+    // Installment n falls due n months after the purchase date
+    List<Installment> buildSchedule(Transaction transaction, List<InstallmentDTO> installments) {
+        List<Installment> schedule = new ArrayList<>(installments.size());
+        LocalDate purchaseDate = transaction.getEventDate().toLocalDateTime().toLocalDate();
+        int installmentNumber = 1;
+        for (InstallmentDTO installmentDTO : installments) {
+            Installment installment = new Installment();
+            installment.setTransaction(transaction);
+            installment.setInstallmentNumber(installmentNumber);
+            installment.setInstallmentAmount(installmentDTO.getAmount());
+            installment.setDueDate(purchaseDate.plusMonths(installmentNumber));
+            installment.setStatus(InstallmentStatus.PENDING);
+            schedule.add(installment);
+
+            installmentNumber++;
+        }
+        return schedule;
+    }
+
+    InstallmentSummary buildSummary(Transaction transaction, List<Installment> schedule) {
+        long remainingCents = 0;
+        for (Installment installment : schedule) {
+            // Installment amounts are optional in the request
+            if (installment.getInstallmentAmount() != null) {
+                remainingCents = Math.addExact(remainingCents, installment.getInstallmentAmount().getCents());
+            }
         }
+        InstallmentSummary summary = new InstallmentSummary();
+        summary.setTransactionId(transaction.getTransactionId());
+        summary.setRemainingCount(schedule.size());
+        summary.setRemainingAmount(Money.ofCents(remainingCents).toBigDecimal());
+        summary.setNextInstallmentNumber(schedule.isEmpty() ? null : 1);
+        return summary;
+    }
+
+    void validateAmount(Money amount) {
+        if (!amount.isPositive()) {
+            logger.debug("Transaction amount must be greater than zero, provided: {}", amount);
+            throw new InvalidRequestException("Transaction amount must be greater than zero.");
+        }
+    }
+
+    // Negative for purchases/withdrawals/purchase_with_installment; the sign lives on the operation type
+    Money adjustAmount(OperationType operationType, Money amount) {
+        return operationType.applySign(amount);
+    }
+
+    OperationType validateOperationType(int operationTypeId) {
+        OperationType operationType = OperationType.find(operationTypeId);
+        if (operationType == null) {
+            logger.debug("Invalid operation type ID: {}", operationTypeId);
+            throw new InvalidRequestException("Invalid OperationType ID: " + operationTypeId);
+        }
+        return operationType;
+    }
+
+    // Accounts known to exist are linked through a lazy reference, so the write is a single INSERT;
+    // anything else is loaded, which still raises ResourceNotFoundException for unknown ids
+    private Account getAccountReference(Long accountId) {
+        if (knownAccountIds.contains(accountId)) {
+            return accountRepository.getReferenceById(accountId);
+        }
+        return findAccountById(accountId);
     }
 
     private Account findAccountById(Long accountId) {
-        return accountRepository.findById(accountId)
+        Account cached = accountCache.get(accountId);
+        if (cached != null) {
+            knownAccountIds.add(accountId);
+            return cached;
+        }
+
+        Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> {
-                    logger.error("Account not found with ID: {}", accountId);
+                    logger.debug("Account not found with ID: {}", accountId);
                     return new ResourceNotFoundException("Account not found with ID: " + accountId);
                 });
+        accountCache.put(account);
+        knownAccountIds.add(accountId);
+        return account;
     }
 
-    private Transaction buildTransaction(Account account, OperationType operationType, BigDecimal amount) {
+    Transaction buildTransaction(Account account, OperationType operationType, Money amount) {
         Transaction transaction = new Transaction();
         transaction.setAccount(account);
         transaction.setOperationTypeId(operationType.getId());
@@ -0,0 +1,64 @@
+package com.example.transaction_service.service;
+
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import com.example.transaction_service.journal.JournalEntry;
+import com.example.transaction_service.journal.TransactionJournal;
+import com.example.transaction_service.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind variant of createTransaction. Accepted transactions are appended to the durable local
+ * journal and acknowledged without a database round trip; the journal flusher writes them to the
+ * transactions table later. Purchases with installments still take the synchronous path.
+ */
+@Service
+public class WriteBehindTransactionService {
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final TransactionJournal transactionJournal;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindTransactionService.class);
+
+    public WriteBehindTransactionService(TransactionService transactionService, AccountService accountService,
+                                         ObjectProvider<TransactionJournal> transactionJournal,
+                                         SnowflakeIdGenerator snowflakeIdGenerator) {
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.transactionJournal = transactionJournal.getIfAvailable();
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+    }
+
+    public boolean isEnabled() {
+        return transactionJournal != null;
+    }
+
+    public TransactionResponseDTO createTransaction(final TransactionRequestDTO transactionDTO) {
+        transactionService.validateAmount(transactionDTO.getAmount());
+        OperationType operationType = transactionService.validateOperationType(transactionDTO.getOperationTypeId());
+        if (operationType.requiresInstallments()) {
+            return transactionService.createTransaction(transactionDTO);
+        }
+        Money adjustedAmount = transactionService.adjustAmount(operationType, transactionDTO.getAmount());
+
+        // Unknown accounts must be rejected now: the flusher cannot report errors back to the client. Checked on
+        // the primary, since a replica may not have the account yet
+        accountService.getAccountForWrite(transactionDTO.getAccountId());
+
+        // Write-behind is unsharded, so every id is a shard 0 id
+        long transactionId = snowflakeIdGenerator.nextId(0);
+        transactionJournal.append(new JournalEntry(transactionId, transactionDTO.getAccountId(),
+                operationType.getId(), adjustedAmount, System.currentTimeMillis()));
+        logger.debug("Journaled transaction with ID: {}", transactionId);
+
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(transactionId);
+        responseDTO.setMessage("Transaction created successfully");
+        return responseDTO;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.transaction_service.sharding;
+
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Decides which shard an account lives on and binds the current thread to it.
+ *
+ * <p>Ids generated while bound to shard {@code n} carry {@code n} in their shard bits (see
+ * SnowflakeIdGenerator), so an account's shard is read straight from its id. New accounts are spread
+ * round-robin, and adding a shard never moves an existing account. Ids from before the generator belong to
+ * shard 0, which is where data from before sharding lives.
+ *
+ * <p>While a binding is open every connection taken from the routing datasource goes to that shard.
+ * Bindings nest as long as they name the same shard; a transaction never spans two shards.
+ */
+@Component
+public class ShardRouter {
+    private static final Binding NOOP = () -> {
+    };
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+    private final AtomicInteger nextNewAccountShard = new AtomicInteger();
+
+    @Autowired
+    public ShardRouter(@Value("${transaction.sharding.enabled:false}") boolean enabled,
+                       @Value("${transaction.sharding.shard-count:1}") int shardCount) {
+        this(enabled ? shardCount : 1);
+    }
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1 || shardCount > SnowflakeIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count out of range: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * The shard bound to the current thread, or {@code null} outside any binding.
+     */
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(Long accountId) {
+        return shardOf(accountId, "Account not found with ID: ");
+    }
+
+    public int shardForNewAccount() {
+        return Math.floorMod(nextNewAccountShard.getAndIncrement(), shardCount);
+    }
+
+    public Binding bindAccount(Long accountId) {
+        return bind(shardFor(accountId));
+    }
+
+    /**
+     * Binds to the shard a transaction was written to; its id carries the shard like an account id does.
+     */
+    public Binding bindTransaction(Long transactionId) {
+        return bind(shardOf(transactionId, "Transaction not found with ID: "));
+    }
+
+    public Binding bind(int shard) {
+        if (shardCount == 1) {
+            return NOOP;
+        }
+        Integer current = CURRENT_SHARD.get();
+        if (current != null) {
+            if (current != shard) {
+                throw new IllegalStateException("Thread is bound to shard " + current + ", cannot use shard " + shard);
+            }
+            return NOOP;
+        }
+        CURRENT_SHARD.set(shard);
+        return CURRENT_SHARD::remove;
+    }
+
+    /**
+     * Runs the action once per shard, bound to that shard. Used by jobs that scan every account.
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            try (Binding ignored = bind(shard)) {
+                action.accept(shard);
+            }
+        }
+    }
+
+    private int shardOf(Long id, String notFoundMessage) {
+        if (shardCount == 1 || id == null) {
+            return 0;
+        }
+        int shard = SnowflakeIdGenerator.shardOf(id);
+        if (shard >= shardCount) {
+            // No shard ever hands out this id
+            throw new ResourceNotFoundException(notFoundMessage + id);
+        }
+        return shard;
+    }
+
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
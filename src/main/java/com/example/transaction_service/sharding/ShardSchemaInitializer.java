@@ -0,0 +1,43 @@
+package com.example.transaction_service.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Prepares shards 1..n-1 once Hibernate has set up shard 0.
+ *
+ * <p>With {@code ddl-auto=create} the mapped schema is recreated on every other shard; otherwise the shards
+ * are expected to be migrated like shard 0. Ids need no per-shard setup, they are generated in process. Runs
+ * while singletons are created, so the schema exists before any startup load touches it.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRouter shardRouter;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRouter shardRouter, String ddlAuto) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRouter = shardRouter;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!"create".equals(ddlAuto) && !"create-drop".equals(ddlAuto)) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            try (ShardRouter.Binding ignored = shardRouter.bind(shard)) {
+                sessionFactory.getSchemaManager().dropMappedObjects(false);
+                sessionFactory.getSchemaManager().exportMappedObjects(false);
+            }
+            logger.info("Created schema on shard {}", shard);
+        }
+    }
+}
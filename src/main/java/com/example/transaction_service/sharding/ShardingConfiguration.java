@@ -0,0 +1,63 @@
+package com.example.transaction_service.sharding;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with one Hikari pool per shard behind a routing datasource.
+ * Shards are configured as {@code transaction.sharding.shards[n].*} with Hikari property names.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardDataSources shardDataSources(Environment environment, ShardRouter shardRouter) {
+        if (environment.getProperty("transaction.datasource.replica.enabled", Boolean.class, false)
+                || environment.getProperty("transaction.write-behind.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("Sharding cannot be combined with the read replica or write-behind mode");
+        }
+        List<HikariConfig> configs = Binder.get(environment)
+                .bind("transaction.sharding.shards", Bindable.listOf(HikariConfig.class))
+                .orElseThrow(() -> new IllegalStateException("transaction.sharding.shards is not configured"));
+        if (configs.size() != shardRouter.getShardCount()) {
+            throw new IllegalStateException("transaction.sharding.shard-count is " + shardRouter.getShardCount()
+                    + " but " + configs.size() + " shards are configured");
+        }
+
+        List<HikariDataSource> pools = new ArrayList<>(configs.size());
+        for (int shard = 0; shard < configs.size(); shard++) {
+            HikariConfig config = configs.get(shard);
+            config.setPoolName("shard-" + shard);
+            pools.add(new HikariDataSource(config));
+        }
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.getPools()));
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                         ShardRouter shardRouter,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(entityManagerFactory, shardRouter, ddlAuto);
+    }
+}
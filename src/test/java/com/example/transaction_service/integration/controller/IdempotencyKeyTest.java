@@ -0,0 +1,215 @@
+package com.example.transaction_service.integration.controller;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends keyed requests through the whole stack: controller, IdempotencyService and the real services and
+ * database, so a retry is answered with the first response and the write happens once.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+    private static final String CREATE = "/api/transactions";
+    private static final String PAY = "/api/transactions/installments/pay";
+    private static final int INSTALLMENTS = 3;
+    private static final int DUPLICATES = 8;
+    private static final Money INSTALLMENT_AMOUNT = Money.of(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private Long purchaseId;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+
+        List<InstallmentDTO> installments = new ArrayList<>();
+        for (int i = 0; i < INSTALLMENTS; i++) {
+            InstallmentDTO installment = new InstallmentDTO();
+            installment.setAmount(INSTALLMENT_AMOUNT);
+            installments.add(installment);
+        }
+        TransactionRequestDTO purchase = new TransactionRequestDTO();
+        purchase.setAccountId(account.getAccountId());
+        purchase.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        purchase.setAmount(Money.ofCents(INSTALLMENT_AMOUNT.getCents() * INSTALLMENTS));
+        purchase.setInstallments(installments);
+        purchaseId = transactionService.createTransaction(purchase).getTransactionId();
+    }
+
+    private String purchase(int amount) {
+        return "{\"accountId\": " + account.getAccountId() + ", \"operationTypeId\": "
+                + OperationType.NORMAL_PURCHASE.getId() + ", \"amount\": " + amount + "}";
+    }
+
+    private String payment(int installmentNumber) {
+        return "{\"transactionId\": " + purchaseId + ", \"installmentNumber\": " + installmentNumber
+                + ", \"accountId\": " + account.getAccountId() + ", \"amount\": 10}";
+    }
+
+    private MvcResult send(String path, String key, String body) throws Exception {
+        return mockMvc.perform(post(path)
+                        .header("Idempotency-Key", key)
+                        .contentType("application/json")
+                        .content(body))
+                .andReturn();
+    }
+
+    private long transactionId(MvcResult result) throws Exception {
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("transactionId").asLong();
+    }
+
+    private long countTransactions(OperationType operationType) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ? "
+                + "AND operation_type_id = ?", Long.class, account.getAccountId(), operationType.getId());
+        return count == null ? 0 : count;
+    }
+
+    private long countPayments() {
+        return countTransactions(OperationType.INSTALLMENT_PAYMENT);
+    }
+
+    // Sends the same keyed request from several threads at once and returns every response
+    private List<MvcResult> sendConcurrently(String path, String key, String body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        try {
+            List<Future<MvcResult>> futures = new ArrayList<>();
+            for (int i = 0; i < DUPLICATES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return send(path, key, body);
+                }));
+            }
+            start.countDown();
+            List<MvcResult> results = new ArrayList<>();
+            for (Future<MvcResult> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testCreateTransaction_RetryIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = send(CREATE, key, purchase(25));
+        MvcResult retry = send(CREATE, key, purchase(25));
+
+        assertEquals(201, first.getResponse().getStatus());
+        assertEquals(201, retry.getResponse().getStatus());
+        assertEquals(transactionId(first), transactionId(retry));
+        assertEquals(1, countTransactions(OperationType.NORMAL_PURCHASE));
+    }
+
+    @Test
+    void testCreateTransaction_KeyReusedForADifferentRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(201, send(CREATE, key, purchase(25)).getResponse().getStatus());
+        assertEquals(422, send(CREATE, key, purchase(26)).getResponse().getStatus());
+        assertEquals(1, countTransactions(OperationType.NORMAL_PURCHASE));
+    }
+
+    @Test
+    void testCreateTransaction_ConcurrentDuplicatesCreateOneTransaction() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        List<MvcResult> results = sendConcurrently(CREATE, key, purchase(25));
+
+        long firstId = transactionId(results.get(0));
+        for (MvcResult result : results) {
+            assertEquals(201, result.getResponse().getStatus());
+            assertEquals(firstId, transactionId(result));
+        }
+        assertEquals(1, countTransactions(OperationType.NORMAL_PURCHASE));
+    }
+
+    @Test
+    void testPayInstallment_RetryIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = send(PAY, key, payment(1));
+        MvcResult retry = send(PAY, key, payment(1));
+
+        assertEquals(200, first.getResponse().getStatus());
+        assertEquals(200, retry.getResponse().getStatus());
+        assertEquals(transactionId(first), transactionId(retry));
+        assertEquals(1, countPayments());
+    }
+
+    @Test
+    void testPayInstallment_KeyReusedForADifferentRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(200, send(PAY, key, payment(1)).getResponse().getStatus());
+        assertEquals(422, send(PAY, key, payment(2)).getResponse().getStatus());
+        assertEquals(1, countPayments());
+    }
+
+    @Test
+    void testPayInstallment_ConcurrentDuplicatesPayOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        List<MvcResult> results = sendConcurrently(PAY, key, payment(1));
+
+        long firstId = transactionId(results.get(0));
+        for (MvcResult result : results) {
+            assertEquals(200, result.getResponse().getStatus());
+            assertEquals(firstId, transactionId(result));
+        }
+        assertEquals(1, countPayments());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.StatementResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.DailyStatementRollup;
+import com.example.transaction_service.service.StatementService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the daily statement rollup against the transactions written through the service, including
+ * concurrent first writes of a day and an offline rebuild.
+ */
+@SpringBootTest
+class DailyStatementTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private DailyStatementRollup dailyStatementRollup;
+
+    private Account createAccount() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        return accountService.createAccount(accountRequestDTO);
+    }
+
+    private Long create(Account account, OperationType operationType, String amount, String... installments) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setOperationTypeId(operationType.getId());
+        request.setAmount(Money.parse(amount));
+        if (installments.length > 0) {
+            List<InstallmentDTO> schedule = new ArrayList<>();
+            for (String installmentAmount : installments) {
+                InstallmentDTO installment = new InstallmentDTO();
+                installment.setAmount(Money.parse(installmentAmount));
+                schedule.add(installment);
+            }
+            request.setInstallments(schedule);
+        }
+        return transactionService.createTransaction(request).getTransactionId();
+    }
+
+    private StatementResponseDTO today(Account account) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return statementService.getStatement(account.getAccountId(), today, today);
+    }
+
+    @Test
+    void testStatementFollowsTransactionsAndPayments() {
+        Account account = createAccount();
+        Long purchaseId = create(account, OperationType.PURCHASE_INSTALLMENTS, "60.00", "30.00", "30.00");
+        create(account, OperationType.NORMAL_PURCHASE, "10.00");
+        create(account, OperationType.NORMAL_PURCHASE, "2.50");
+        create(account, OperationType.CREDIT_VOUCHER, "25.00");
+
+        PayInstallmentRequestDTO payment = new PayInstallmentRequestDTO();
+        payment.setAccountId(account.getAccountId());
+        payment.setTransactionId(purchaseId);
+        payment.setInstallmentNumber(1);
+        payment.setAmount(Money.parse("30.00"));
+        transactionService.payInstallmentByNumber(payment);
+
+        StatementResponseDTO statement = today(account);
+        assertEquals(5, statement.getTransactionCount());
+        assertEquals(Money.parse("-72.50"), statement.getDebits());
+        assertEquals(Money.parse("55.00"), statement.getCredits());
+        assertEquals(4, statement.getDays().size());
+        assertEquals(2, statement.getDays().stream()
+                .filter(day -> day.getOperationTypeId() == OperationType.NORMAL_PURCHASE.getId())
+                .findFirst().orElseThrow().getTransactionCount());
+
+        dailyStatementRollup.rebuild();
+
+        StatementResponseDTO rebuilt = today(account);
+        assertEquals(statement.getTransactionCount(), rebuilt.getTransactionCount());
+        assertEquals(statement.getDebits(), rebuilt.getDebits());
+        assertEquals(statement.getCredits(), rebuilt.getCredits());
+        assertEquals(statement.getDays().size(), rebuilt.getDays().size());
+    }
+
+    @Test
+    void testConcurrentFirstTransactionsOfTheDayAreAllCounted() throws Exception {
+        Account account = createAccount();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> create(account, OperationType.WITHDRAWAL, "1.00")));
+            }
+            for (Future<Long> result : results) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        StatementResponseDTO statement = today(account);
+        assertEquals(threads, statement.getTransactionCount());
+        assertEquals(Money.of(-threads), statement.getDebits());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the JDBC statements issued for an installment purchase. With IDENTITY keys every installment
+ * cost its own INSERT (1 + n round trips); with pooled ids and JDBC batching the schedule is a single batch.
+ * The outbox relay is off so its polling does not show up in the statistics.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "transaction.outbox.relay.enabled=false"
+})
+class InstallmentBatchInsertTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 12, 48})
+    void testInstallmentScheduleIsWrittenInOneBatch(int installmentCount) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        request.setAmount(Money.of(installmentCount * 10L));
+
+        List<InstallmentDTO> installments = new ArrayList<>();
+        for (int i = 0; i < installmentCount; i++) {
+            InstallmentDTO installment = new InstallmentDTO();
+            installment.setAmount(Money.of(10));
+            installments.add(installment);
+        }
+        request.setInstallments(installments);
+
+        transactionService.createTransaction(request);
+
+        // purchase insert + outbox event + one installment batch + installment summary; the account is known
+        // from createAccount and the daily statement goes through JdbcTemplate, outside Hibernate's count
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.InstallmentPaymentBatcher;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pays installments through the micro-batching executor. Payments submitted together share a batch, and each
+ * caller still gets the result or error it would have had on the synchronous path.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchingdb;MODE=MySQL",
+        "transaction.installment-payment.batching.enabled=true",
+        "transaction.installment-payment.batching.max-delay-us=50000"
+})
+class InstallmentPaymentBatchingTest {
+
+    @Autowired
+    private InstallmentPaymentBatcher installmentPaymentBatcher;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Autowired
+    private InstallmentSummaryService installmentSummaryService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+    }
+
+    private Long purchase(String... amounts) {
+        List<InstallmentDTO> installments = new ArrayList<>();
+        long totalCents = 0;
+        for (String amount : amounts) {
+            InstallmentDTO installment = new InstallmentDTO();
+            installment.setAmount(Money.parse(amount));
+            installments.add(installment);
+            totalCents += installment.getAmount().getCents();
+        }
+        TransactionRequestDTO purchase = new TransactionRequestDTO();
+        purchase.setAccountId(account.getAccountId());
+        purchase.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        purchase.setAmount(Money.ofCents(totalCents));
+        purchase.setInstallments(installments);
+        return transactionService.createTransaction(purchase).getTransactionId();
+    }
+
+    private PayInstallmentRequestDTO payment(Long purchaseId, int installmentNumber, String amount) {
+        PayInstallmentRequestDTO request = new PayInstallmentRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setTransactionId(purchaseId);
+        request.setInstallmentNumber(installmentNumber);
+        request.setAmount(Money.parse(amount));
+        return request;
+    }
+
+    // Submits every payment at once and returns, in order, the response or the exception each one got
+    private List<Object> payTogether(List<PayInstallmentRequestDTO> payments) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(payments.size());
+        List<Future<TransactionResponseDTO>> futures = new ArrayList<>();
+        for (PayInstallmentRequestDTO payment : payments) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return installmentPaymentBatcher.payInstallmentByNumber(payment);
+            }));
+        }
+        start.countDown();
+
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<TransactionResponseDTO> future : futures) {
+            try {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            } catch (ExecutionException ex) {
+                outcomes.add(ex.getCause());
+            }
+        }
+        executor.shutdown();
+        return outcomes;
+    }
+
+    private int paymentRows() {
+        return transactionHistoryService.getTransactions(account.getAccountId(),
+                OperationType.INSTALLMENT_PAYMENT.getId(), null, null, null, 500).getTransactions().size();
+    }
+
+    @Test
+    void testEachPaymentInABatchGetsItsOwnResult() throws Exception {
+        Long purchaseId = purchase("10.00", "20.00", "30.00");
+        BigDecimal balanceBefore = accountBalanceLedger.getBalance(account.getAccountId());
+
+        List<Object> outcomes = payTogether(List.of(
+                payment(purchaseId, 1, "10.00"),
+                payment(purchaseId, 2, "25.00"),
+                payment(purchaseId, 3, "30.00"),
+                payment(purchaseId, 9, "10.00"),
+                payment(Long.MAX_VALUE, 1, "10.00")));
+
+        TransactionResponseDTO first = assertInstanceOf(TransactionResponseDTO.class, outcomes.get(0));
+        assertEquals("Installment payment successful", first.getMessage());
+        assertEquals("Paid amount does not match the installment amount.",
+                assertInstanceOf(InvalidRequestException.class, outcomes.get(1)).getMessage());
+        assertInstanceOf(TransactionResponseDTO.class, outcomes.get(2));
+        assertEquals("Installment not found or already paid",
+                assertInstanceOf(ResourceNotFoundException.class, outcomes.get(3)).getMessage());
+        assertEquals("Transaction not found",
+                assertInstanceOf(ResourceNotFoundException.class, outcomes.get(4)).getMessage());
+
+        assertEquals(2, paymentRows());
+        assertEquals(0, balanceBefore.add(new BigDecimal("40.00"))
+                .compareTo(accountBalanceLedger.getBalance(account.getAccountId())));
+
+        InstallmentSummaryResponseDTO summary = installmentSummaryService.getSummary(purchaseId);
+        assertEquals(1, summary.getRemainingCount());
+        assertEquals(0, new BigDecimal("20.00").compareTo(summary.getRemainingAmount()));
+        assertEquals(2, summary.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testDuplicatePaymentsPayEachInstallmentExactlyOnce() throws Exception {
+        Long purchaseId = purchase("10.00", "10.00", "10.00", "10.00");
+
+        List<PayInstallmentRequestDTO> payments = new ArrayList<>();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            for (int number = 1; number <= 4; number++) {
+                payments.add(payment(purchaseId, number, "10.00"));
+            }
+        }
+        List<Object> outcomes = payTogether(payments);
+
+        int[] successes = new int[5];
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) instanceof TransactionResponseDTO) {
+                successes[payments.get(i).getInstallmentNumber()]++;
+            } else {
+                assertEquals("Installment has already been paid.",
+                        assertInstanceOf(InvalidRequestException.class, outcomes.get(i)).getMessage());
+            }
+        }
+        for (int number = 1; number <= 4; number++) {
+            assertEquals(1, successes[number], "installment " + number);
+        }
+        assertEquals(4, paymentRows());
+
+        InstallmentSummaryResponseDTO summary = installmentSummaryService.getSummary(purchaseId);
+        assertEquals(0, summary.getRemainingCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getRemainingAmount()));
+        assertNull(summary.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testSynchronousPaymentIsSeenByTheBatch() {
+        Long purchaseId = purchase("10.00", "20.00");
+        transactionService.payInstallmentByNumber(payment(purchaseId, 1, "10.00"));
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                installmentPaymentBatcher.payInstallmentByNumber(payment(purchaseId, 1, "10.00")));
+        assertEquals("Installment has already been paid.", exception.getMessage());
+
+        assertNotNull(installmentPaymentBatcher.payInstallmentByNumber(payment(purchaseId, 2, "20.00"))
+                .getTransactionId());
+        assertNull(installmentSummaryService.getSummary(purchaseId).getNextInstallmentNumber());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads try to pay every installment of one purchase at the same time. Each installment must be
+ * paid exactly once: one success per installment, one INSTALLMENT_PAYMENT row each, and a balance that
+ * moves by exactly the schedule total.
+ */
+@SpringBootTest
+class InstallmentPaymentConcurrencyTest {
+
+    private static final int INSTALLMENTS = 12;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_INSTALLMENT = 8;
+    private static final Money INSTALLMENT_AMOUNT = Money.of(10);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @Autowired
+    private InstallmentSummaryService installmentSummaryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private Long purchaseId;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+
+        List<InstallmentDTO> installments = new ArrayList<>();
+        for (int i = 0; i < INSTALLMENTS; i++) {
+            InstallmentDTO installment = new InstallmentDTO();
+            installment.setAmount(INSTALLMENT_AMOUNT);
+            installments.add(installment);
+        }
+        TransactionRequestDTO purchase = new TransactionRequestDTO();
+        purchase.setAccountId(account.getAccountId());
+        purchase.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        purchase.setAmount(Money.ofCents(INSTALLMENT_AMOUNT.getCents() * INSTALLMENTS));
+        purchase.setInstallments(installments);
+        purchaseId = transactionService.createTransaction(purchase).getTransactionId();
+    }
+
+    private PayInstallmentRequestDTO payment(int installmentNumber) {
+        PayInstallmentRequestDTO request = new PayInstallmentRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setTransactionId(purchaseId);
+        request.setInstallmentNumber(installmentNumber);
+        request.setAmount(INSTALLMENT_AMOUNT);
+        return request;
+    }
+
+    @Test
+    void testConcurrentPaymentsPayEachInstallmentExactlyOnce() throws Exception {
+        BigDecimal balanceBefore = accountBalanceLedger.getBalance(account.getAccountId());
+        ConcurrentHashMap<Integer, AtomicInteger> successes = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int attempt = 0; attempt < ATTEMPTS_PER_INSTALLMENT; attempt++) {
+            for (int number = 1; number <= INSTALLMENTS; number++) {
+                int installmentNumber = number;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionService.payInstallmentByNumber(payment(installmentNumber));
+                        successes.computeIfAbsent(installmentNumber, n -> new AtomicInteger()).incrementAndGet();
+                    } catch (InvalidRequestException ex) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INSTALLMENTS, successes.size());
+        successes.forEach((number, count) -> assertEquals(1, count.get(), "installment " + number));
+        assertEquals(INSTALLMENTS * (ATTEMPTS_PER_INSTALLMENT - 1), rejected.get());
+
+        int paymentRows = transactionHistoryService.getTransactions(account.getAccountId(),
+                OperationType.INSTALLMENT_PAYMENT.getId(), null, null, null, 500).getTransactions().size();
+        assertEquals(INSTALLMENTS, paymentRows);
+
+        BigDecimal expected = balanceBefore.add(INSTALLMENT_AMOUNT.toBigDecimal().multiply(BigDecimal.valueOf(INSTALLMENTS)));
+        assertEquals(0, expected.compareTo(accountBalanceLedger.getBalance(account.getAccountId())));
+
+        // The summary absorbed every payment exactly once as well
+        InstallmentSummaryResponseDTO summary = installmentSummaryService.getSummary(purchaseId);
+        assertEquals(0, summary.getRemainingCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getRemainingAmount()));
+        assertNull(summary.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testConditionalUpdateMatchesOnlyOnce() {
+        Installment installment = transactionTemplate.execute(status -> {
+            Transaction purchase = new Transaction();
+            purchase.setTransactionId(purchaseId);
+            return installmentRepository.findByTransactionAndInstallmentNumber(purchase, 1).orElseThrow();
+        });
+
+        // Two writers that both read the installment as PENDING at the same version
+        Integer first = transactionTemplate.execute(status ->
+                installmentRepository.markPaid(installment.getId(), installment.getVersion()));
+        Integer second = transactionTemplate.execute(status ->
+                installmentRepository.markPaid(installment.getId(), installment.getVersion()));
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(InstallmentStatus.PAID, installmentRepository.findById(installment.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testInstallmentWithoutVersionCanBePaidOnce() {
+        // Rows written before the version column existed
+        jdbcTemplate.update("update installments set version = null where transaction_id = ?", purchaseId);
+
+        assertEquals("Installment payment successful", transactionService.payInstallmentByNumber(payment(1)).getMessage());
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionService.payInstallmentByNumber(payment(1)));
+        assertEquals("Installment has already been paid.", exception.getMessage());
+        assertEquals(INSTALLMENTS - 1, installmentSummaryService.getSummary(purchaseId).getRemainingCount());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keeps the installment summary in step with out-of-order payments, and checks the aggregated figures
+ * used for purchases that have no summary row.
+ */
+@SpringBootTest
+class InstallmentSummaryTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private InstallmentSummaryService installmentSummaryService;
+
+    @Autowired
+    private InstallmentSummaryRepository installmentSummaryRepository;
+
+    private Account account;
+    private Long purchaseId;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+
+        List<InstallmentDTO> installments = new ArrayList<>();
+        for (String amount : new String[]{"10.00", "20.00", "30.00"}) {
+            InstallmentDTO installment = new InstallmentDTO();
+            installment.setAmount(Money.parse(amount));
+            installments.add(installment);
+        }
+        TransactionRequestDTO purchase = new TransactionRequestDTO();
+        purchase.setAccountId(account.getAccountId());
+        purchase.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        purchase.setAmount(Money.parse("60.00"));
+        purchase.setInstallments(installments);
+        purchaseId = transactionService.createTransaction(purchase).getTransactionId();
+    }
+
+    private void pay(int installmentNumber, String amount) {
+        PayInstallmentRequestDTO request = new PayInstallmentRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setTransactionId(purchaseId);
+        request.setInstallmentNumber(installmentNumber);
+        request.setAmount(Money.parse(amount));
+        transactionService.payInstallmentByNumber(request);
+    }
+
+    private void assertSummary(int remainingCount, String remainingAmount, Integer nextInstallmentNumber) {
+        InstallmentSummaryResponseDTO summary = installmentSummaryService.getSummary(purchaseId);
+        assertEquals(remainingCount, summary.getRemainingCount());
+        assertEquals(0, new BigDecimal(remainingAmount).compareTo(summary.getRemainingAmount()));
+        assertEquals(nextInstallmentNumber, summary.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testSummaryFollowsPayments() {
+        assertSummary(3, "60", 1);
+
+        pay(2, "20.00");
+        assertSummary(2, "40", 1);
+
+        pay(1, "10.00");
+        assertSummary(1, "30", 3);
+
+        pay(3, "30.00");
+        assertSummary(0, "0", null);
+    }
+
+    @Test
+    void testPurchaseWithoutSummaryIsAggregated() {
+        pay(1, "10.00");
+        installmentSummaryRepository.deleteById(purchaseId);
+
+        assertSummary(2, "50", 2);
+    }
+}
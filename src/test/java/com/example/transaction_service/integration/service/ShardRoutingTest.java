@@ -0,0 +1,115 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.example.transaction_service.service.TransactionService;
+import com.example.transaction_service.sharding.ShardDataSources;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against two in-memory H2 shards and checks that each account's rows stay on its shard.
+ */
+@SpringBootTest(properties = {
+        "transaction.sharding.enabled=true",
+        "transaction.sharding.shard-count=2",
+        "transaction.sharding.shards[0].jdbc-url=jdbc:h2:mem:shard0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "transaction.sharding.shards[0].username=sa",
+        "transaction.sharding.shards[1].jdbc-url=jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "transaction.sharding.shards[1].username=sa"
+})
+class ShardRoutingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    private Account createAccount() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        return accountService.createAccount(accountRequestDTO);
+    }
+
+    private TransactionResponseDTO purchase(Account account) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
+        request.setAmount(Money.of(10));
+        return transactionService.createTransaction(request);
+    }
+
+    private long countRows(int shard, String table, long id) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shardDataSources.getPools().get(shard));
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE account_id = ?", Long.class, id);
+        return count == null ? 0 : count;
+    }
+
+    @Test
+    void testNewAccountsAreSpreadAcrossShards() {
+        Account first = createAccount();
+        Account second = createAccount();
+
+        int firstShard = shardRouter.shardFor(first.getAccountId());
+        int secondShard = shardRouter.shardFor(second.getAccountId());
+        assertNotEquals(firstShard, secondShard);
+        assertEquals(firstShard, SnowflakeIdGenerator.shardOf(first.getAccountId()));
+        assertEquals(1, countRows(firstShard, "accounts", first.getAccountId()));
+        assertEquals(0, countRows(secondShard, "accounts", first.getAccountId()));
+    }
+
+    @Test
+    void testTransactionsAreWrittenToTheAccountShard() {
+        Account first = createAccount();
+        Account second = createAccount();
+
+        TransactionResponseDTO firstPurchase = purchase(first);
+        TransactionResponseDTO secondPurchase = purchase(second);
+
+        int firstShard = shardRouter.shardFor(first.getAccountId());
+        int secondShard = shardRouter.shardFor(second.getAccountId());
+        assertEquals(1, countRows(firstShard, "transactions", first.getAccountId()));
+        assertEquals(0, countRows(secondShard, "transactions", first.getAccountId()));
+        assertEquals(1, countRows(secondShard, "transactions", second.getAccountId()));
+        // Generated ids carry the shard they were written to
+        assertEquals(firstShard, SnowflakeIdGenerator.shardOf(firstPurchase.getTransactionId()));
+        assertEquals(secondShard, SnowflakeIdGenerator.shardOf(secondPurchase.getTransactionId()));
+
+        TransactionHistoryPageDTO history = transactionHistoryService.getTransactions(second.getAccountId(),
+                null, null, null, null, null);
+        assertEquals(1, history.getTransactions().size());
+    }
+
+    @Test
+    void testIdOutsideEveryShardIsNotFound() {
+        long unknown = new SnowflakeIdGenerator(0).nextId(5);
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountById(unknown));
+    }
+}
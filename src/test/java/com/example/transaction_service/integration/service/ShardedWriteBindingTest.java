@@ -0,0 +1,82 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.DailyStatementRollup;
+import com.example.transaction_service.service.TransactionService;
+import com.example.transaction_service.sharding.ShardDataSources;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates transactions on two H2 shards with the daily statement rollup mocked out, so no SQL runs while the
+ * transaction is open and every insert waits for the commit-time flush. The rows must still land on the
+ * account's shard.
+ */
+@SpringBootTest(properties = {
+        "transaction.sharding.enabled=true",
+        "transaction.sharding.shard-count=2",
+        "transaction.sharding.shards[0].jdbc-url=jdbc:h2:mem:binding0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "transaction.sharding.shards[0].username=sa",
+        "transaction.sharding.shards[1].jdbc-url=jdbc:h2:mem:binding1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "transaction.sharding.shards[1].username=sa"
+})
+class ShardedWriteBindingTest {
+
+    @MockBean
+    private DailyStatementRollup dailyStatementRollup;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    private Account createAccount() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        return accountService.createAccount(accountRequestDTO);
+    }
+
+    private long countTransactions(int shard, long accountId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shardDataSources.getPools().get(shard));
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE account_id = ?", Long.class, accountId);
+        return count == null ? 0 : count;
+    }
+
+    @Test
+    void testTransactionIsFlushedToTheAccountShard() {
+        // Round-robin assignment puts one of two new accounts on shard 1, away from the default shard
+        for (Account account : new Account[]{createAccount(), createAccount()}) {
+            TransactionRequestDTO request = new TransactionRequestDTO();
+            request.setAccountId(account.getAccountId());
+            request.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
+            request.setAmount(Money.of(10));
+
+            transactionService.createTransaction(request);
+
+            int shard = shardRouter.shardFor(account.getAccountId());
+            assertEquals(1, countTransactions(shard, account.getAccountId()));
+            assertEquals(0, countTransactions(1 - shard, account.getAccountId()));
+        }
+    }
+}
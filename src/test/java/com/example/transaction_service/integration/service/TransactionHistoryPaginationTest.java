@@ -0,0 +1,101 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks an account's history page by page. Many rows share an event_date at millisecond resolution, so
+ * this also checks that transaction_id breaks ties without skipping or repeating rows.
+ */
+@SpringBootTest
+class TransactionHistoryPaginationTest {
+
+    private static final int TRANSACTIONS = 57;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private AccountService accountService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        account = accountService.createAccount(accountRequestDTO);
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            TransactionRequestDTO request = new TransactionRequestDTO();
+            request.setAccountId(account.getAccountId());
+            request.setOperationTypeId(i % 3 == 0 ? OperationType.CREDIT_VOUCHER.getId()
+                    : OperationType.NORMAL_PURCHASE.getId());
+            request.setAmount(Money.of(1));
+            transactionService.createTransaction(request);
+        }
+    }
+
+    private List<TransactionHistoryItemDTO> readAll(Integer operationTypeId, int pageSize) {
+        List<TransactionHistoryItemDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryPageDTO page = transactionHistoryService.getTransactions(account.getAccountId(),
+                    operationTypeId, null, null, cursor, pageSize);
+            assertTrue(page.getTransactions().size() <= pageSize);
+            all.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    void testPagesCoverEveryTransactionOnceNewestFirst() {
+        List<TransactionHistoryItemDTO> all = readAll(null, 10);
+
+        assertEquals(TRANSACTIONS, all.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).getTransactionId()));
+            if (i > 0) {
+                TransactionHistoryItemDTO previous = all.get(i - 1);
+                TransactionHistoryItemDTO current = all.get(i);
+                assertFalse(current.getEventDate().isAfter(previous.getEventDate()));
+                if (current.getEventDate().equals(previous.getEventDate())) {
+                    assertTrue(current.getTransactionId() < previous.getTransactionId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOperationTypeFilter() {
+        List<TransactionHistoryItemDTO> credits = readAll(OperationType.CREDIT_VOUCHER.getId(), 7);
+
+        assertEquals((TRANSACTIONS + 2) / 3, credits.size());
+        assertTrue(credits.stream().allMatch(item -> item.getOperationTypeId() == OperationType.CREDIT_VOUCHER.getId()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.transaction_service.integration.service;
+
+import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.OutboxEvent;
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.InMemoryOutboxSink;
+import com.example.transaction_service.outbox.OutboxRelay;
+import com.example.transaction_service.outbox.OutboxSink;
+import com.example.transaction_service.repository.OutboxEventRepository;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes transactions through the service and relays their outbox events by hand. Uses its own database
+ * so relays of other cached test contexts cannot take the events first.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb;MODE=MySQL",
+        "transaction.outbox.sink=memory",
+        "transaction.outbox.relay.interval-ms=3600000"
+})
+class TransactionOutboxTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxSink sink;
+
+    private Account createAccount() {
+        AccountRequestDTO accountRequestDTO = new AccountRequestDTO();
+        accountRequestDTO.setDocumentNumber(String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        return accountService.createAccount(accountRequestDTO);
+    }
+
+    private TransactionResponseDTO create(Account account, OperationType operationType, String amount) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setAccountId(account.getAccountId());
+        request.setOperationTypeId(operationType.getId());
+        request.setAmount(Money.parse(amount));
+        return transactionService.createTransaction(request);
+    }
+
+    @Test
+    void testEventsAreWrittenWithTheTransactionAndRelayedInOrder() {
+        InMemoryOutboxSink outboxSink = (InMemoryOutboxSink) sink;
+        outboxRelay.drain();
+        outboxSink.clear();
+        Account account = createAccount();
+
+        TransactionResponseDTO purchase = create(account, OperationType.NORMAL_PURCHASE, "25.50");
+        TransactionResponseDTO voucher = create(account, OperationType.CREDIT_VOUCHER, "10");
+        assertEquals(2, outboxEventRepository.count());
+
+        outboxRelay.drain();
+
+        List<OutboxEvent> events = outboxSink.getEvents();
+        assertEquals(2, events.size());
+        assertEquals(purchase.getTransactionId(), events.get(0).getTransactionId());
+        assertEquals(account.getAccountId(), events.get(0).getAccountId());
+        assertEquals(Money.parse("-25.50"), events.get(0).getAmount());
+        assertEquals(voucher.getTransactionId(), events.get(1).getTransactionId());
+        assertEquals(Money.of(10), events.get(1).getAmount());
+        assertTrue(events.get(0).getId() < events.get(1).getId());
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
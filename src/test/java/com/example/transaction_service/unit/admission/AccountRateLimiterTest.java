@@ -0,0 +1,88 @@
+package com.example.transaction_service.unit.admission;
+
+import com.example.transaction_service.admission.AccountRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void testBurstThenRefillAtTheRate() {
+        AccountRateLimiter limiter = new AccountRateLimiter(10, 5, 100, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(1L));
+        }
+        long wait = limiter.tryAcquire(1L);
+        assertEquals(SECOND / 10, wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+
+        // A full second refills ten tokens, but the bucket holds no more than the burst
+        now.addAndGet(2 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(1L));
+        }
+        assertTrue(limiter.tryAcquire(1L) > 0);
+    }
+
+    @Test
+    void testAccountsHaveSeparateBuckets() {
+        AccountRateLimiter limiter = new AccountRateLimiter(1, 1, 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+        assertEquals(0, limiter.tryAcquire(2L));
+    }
+
+    @Test
+    void testIdleBucketsAreEvictedAtTheBound() {
+        AccountRateLimiter limiter = new AccountRateLimiter(1, 1, 2, now::get);
+        limiter.tryAcquire(1L);
+        limiter.tryAcquire(2L);
+
+        // Both buckets are in use, so a third account is admitted without one
+        assertEquals(0, limiter.tryAcquire(3L));
+        assertEquals(0, limiter.tryAcquire(3L));
+        assertEquals(2, limiter.size());
+
+        now.addAndGet(2 * SECOND);
+        assertEquals(0, limiter.tryAcquire(3L));
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.tryAcquire(3L) > 0);
+    }
+
+    @Test
+    void testConcurrentRequestsNeverExceedTheBurst() throws Exception {
+        AccountRateLimiter limiter = new AccountRateLimiter(1, 100, 100, now::get);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                executor.submit(() -> {
+                    if (limiter.tryAcquire(1L) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(100, admitted.get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.transaction_service.unit.admission;
+
+import com.example.transaction_service.admission.AccountRateLimiter;
+import com.example.transaction_service.admission.AdaptiveConcurrencyLimiter;
+import com.example.transaction_service.admission.AdmissionControl;
+import com.example.transaction_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+    private final AdaptiveConcurrencyLimiter bulkLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+
+    private AdmissionControl admissionControl(boolean enabled) {
+        return new AdmissionControl(meterRegistry, enabled, new AccountRateLimiter(0.5, 1, 100, now::get),
+                concurrencyLimiter, bulkLimiter, now::get);
+    }
+
+    @Test
+    void testAccountOverItsRateIsRejectedWithRetryAfter() {
+        AdmissionControl admissionControl = admissionControl(true);
+        admissionControl.admit(1L).close();
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> admissionControl.admit(1L));
+
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.counter("admission.rejected", "reason", "account-rate").count());
+        // The refused request never took a slot
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void testRequestsOverTheConcurrencyLimitAreRejected() {
+        AdmissionControl admissionControl = admissionControl(true);
+
+        try (AdmissionControl.Permit ignored = admissionControl.admit(1L)) {
+            TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                    () -> admissionControl.admit(null));
+            assertEquals(1, ex.getRetryAfterSeconds());
+        }
+        assertEquals(1, meterRegistry.counter("admission.rejected", "reason", "concurrency").count());
+
+        // Closing the permit freed the slot, and closing twice frees it once
+        AdmissionControl.Permit permit = admissionControl.admit(null);
+        permit.close();
+        permit.close();
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void testBulkUploadsHaveTheirOwnLimit() {
+        AdmissionControl admissionControl = admissionControl(true);
+
+        try (AdmissionControl.Permit bulk = admissionControl.admitBulk()) {
+            // A running upload leaves the global slot free
+            admissionControl.admit(1L).close();
+            TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                    admissionControl::admitBulk);
+            assertEquals(10, ex.getRetryAfterSeconds());
+        }
+        assertEquals(1, meterRegistry.counter("admission.rejected", "reason", "bulk-concurrency").count());
+        assertEquals(0, bulkLimiter.getInFlight());
+        admissionControl.admitBulk().close();
+    }
+
+    @Test
+    void testDisabledAdmitsEverything() {
+        AdmissionControl admissionControl = admissionControl(false);
+
+        for (int i = 0; i < 10; i++) {
+            admissionControl.admit(1L);
+        }
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.transaction_service.unit.cache;
+
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.entity.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountCache = new AccountCache(meterRegistry, 2);
+    }
+
+    private static Account account(long id) {
+        Account account = new Account();
+        account.setAccountId(id);
+        return account;
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("cache", "accounts").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testGet_CountsHitsAndMisses() {
+        Account account = account(1L);
+        accountCache.put(account);
+
+        assertSame(account, accountCache.get(1L));
+        assertNull(accountCache.get(2L));
+
+        assertEquals(1.0, count("cache.gets", "hit"));
+        assertEquals(1.0, count("cache.gets", "miss"));
+    }
+
+    @Test
+    void testPut_EvictsEntriesNotUsedSinceInsertion() {
+        accountCache.put(account(1L));
+        accountCache.put(account(2L));
+        accountCache.get(1L); // 1 gets a second chance, 2 has not been used
+        accountCache.put(account(3L));
+
+        assertEquals(2, accountCache.size());
+        assertNotNull(accountCache.get(1L));
+        assertNull(accountCache.get(2L));
+        assertNotNull(accountCache.get(3L));
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "accounts").counter().count());
+        assertEquals(2.0, meterRegistry.get("cache.size").tag("cache", "accounts").gauge().value());
+    }
+
+    @Test
+    void testConcurrentUseStaysBounded() throws InterruptedException {
+        AccountCache bounded = new AccountCache(meterRegistry, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            long offset = thread * 10_000L;
+            executor.submit(() -> {
+                for (long id = offset; id < offset + 5_000; id++) {
+                    bounded.put(account(id));
+                    bounded.get(id - 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        bounded.put(account(-1L));
+        assertTrue(bounded.size() <= 100, "size " + bounded.size());
+        assertNotNull(bounded.get(-1L));
+    }
+}
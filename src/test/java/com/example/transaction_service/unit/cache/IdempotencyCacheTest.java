@@ -0,0 +1,123 @@
+package com.example.transaction_service.unit.cache;
+
+import com.example.transaction_service.cache.IdempotencyCache;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private IdempotencyCache idempotencyCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        idempotencyCache = new IdempotencyCache(meterRegistry, 2, Duration.ofMinutes(10), clock);
+    }
+
+    private static TransactionResponseDTO response(long id) {
+        TransactionResponseDTO response = new TransactionResponseDTO();
+        response.setTransactionId(id);
+        return response;
+    }
+
+    private double evictions() {
+        return meterRegistry.get("cache.evictions").tag("cache", "idempotency-keys").counter().count();
+    }
+
+    @Test
+    void testGet_ReturnsStoredResponse() {
+        TransactionResponseDTO response = response(1L);
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response);
+
+        IdempotencyCache.Entry entry = idempotencyCache.get("a");
+
+        assertSame(response, entry.getResponse());
+        assertEquals("CREATE_TRANSACTION", entry.getOperation());
+        assertNull(idempotencyCache.get("b"));
+    }
+
+    @Test
+    void testGet_ExpiredEntryIsDropped() {
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response(1L));
+
+        clock.advance(Duration.ofMinutes(10));
+
+        assertNull(idempotencyCache.get("a"));
+        assertEquals(0, idempotencyCache.size());
+        assertEquals(1.0, evictions());
+    }
+
+    @Test
+    void testPut_EvictsOldestBeyondMaximumSize() {
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response(1L));
+        idempotencyCache.put("b", "CREATE_TRANSACTION", "hash", response(2L));
+        idempotencyCache.put("c", "CREATE_TRANSACTION", "hash", response(3L));
+
+        assertNull(idempotencyCache.get("a"));
+        assertNotNull(idempotencyCache.get("b"));
+        assertNotNull(idempotencyCache.get("c"));
+        assertEquals(1.0, evictions());
+    }
+
+    @Test
+    void testPut_DropsExpiredEntriesFirst() {
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response(1L));
+        clock.advance(Duration.ofMinutes(6));
+        idempotencyCache.put("b", "CREATE_TRANSACTION", "hash", response(2L));
+        clock.advance(Duration.ofMinutes(5));
+
+        idempotencyCache.put("c", "CREATE_TRANSACTION", "hash", response(3L));
+
+        assertEquals(2, idempotencyCache.size());
+        assertNotNull(idempotencyCache.get("b"));
+        assertNotNull(idempotencyCache.get("c"));
+    }
+
+    @Test
+    void testPut_ReplacedEntryIsEvictedOnce() {
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response(1L));
+        idempotencyCache.put("a", "CREATE_TRANSACTION", "hash", response(1L));
+        idempotencyCache.put("b", "CREATE_TRANSACTION", "hash", response(2L));
+        idempotencyCache.put("c", "CREATE_TRANSACTION", "hash", response(3L));
+
+        assertNull(idempotencyCache.get("a"));
+        assertNotNull(idempotencyCache.get("b"));
+        assertNotNull(idempotencyCache.get("c"));
+        assertEquals(1.0, evictions());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
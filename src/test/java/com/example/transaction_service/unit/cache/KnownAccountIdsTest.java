@@ -0,0 +1,106 @@
+package com.example.transaction_service.unit.cache;
+
+import com.example.transaction_service.cache.KnownAccountIds;
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownAccountIdsTest {
+
+    private final KnownAccountIds knownAccountIds = new KnownAccountIds(1 << 16);
+
+    @Test
+    void testContains_OnlyAddedIds() {
+        knownAccountIds.add(1L);
+        knownAccountIds.add(64L);
+        knownAccountIds.add(70_000L);
+
+        assertTrue(knownAccountIds.contains(1L));
+        assertTrue(knownAccountIds.contains(64L));
+        assertTrue(knownAccountIds.contains(70_000L));
+        assertFalse(knownAccountIds.contains(0L));
+        assertFalse(knownAccountIds.contains(2L));
+        assertFalse(knownAccountIds.contains(65L));
+        assertFalse(knownAccountIds.contains(5_000_000L));
+    }
+
+    @Test
+    void testAdd_ConcurrentWritersOnTheSameWord() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (long id = 0; id < 4_096; id++) {
+            long accountId = id;
+            executor.submit(() -> knownAccountIds.add(accountId));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (long id = 0; id < 4_096; id++) {
+            assertTrue(knownAccountIds.contains(id), "missing " + id);
+        }
+    }
+
+    @Test
+    void testGeneratedIdsStayWithinTheCapacity() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, new TickingClock());
+        KnownAccountIds bounded = new KnownAccountIds(4_096);
+
+        long[] ids = new long[1_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId(i % 4);
+            bounded.add(ids[i]);
+        }
+        for (long id : ids) {
+            assertTrue(bounded.contains(id), "missing " + id);
+        }
+        assertFalse(bounded.contains(generator.nextId(0)));
+
+        // Far more accounts than slots: older ids are forgotten, the table does not grow
+        long last = 0;
+        for (int i = 0; i < 100_000; i++) {
+            last = generator.nextId(i % 4);
+            bounded.add(last);
+        }
+        assertTrue(bounded.contains(last));
+        assertEquals(4_096, bounded.getCapacity());
+    }
+
+    @Test
+    void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1_024, new KnownAccountIds(1_000).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new KnownAccountIds(0));
+    }
+
+    // Each id lands in a new millisecond, as accounts do when they are created one at a time
+    private static class TickingClock extends Clock {
+        private long millis = Instant.parse("2024-06-10T12:00:00Z").toEpochMilli();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis++;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+    }
+}
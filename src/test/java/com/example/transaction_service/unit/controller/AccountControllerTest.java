@@ -1,11 +1,24 @@
 package com.example.transaction_service.unit.controller;
 
+import com.example.transaction_service.admission.AdmissionControl;
 import com.example.transaction_service.controller.AccountController;
 import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.response.AccountBalanceResponseDTO;
+import com.example.transaction_service.dto.response.StatementDayDTO;
+import com.example.transaction_service.dto.response.StatementResponseDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.exception.GlobalExceptionHandler;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.metrics.TransactionMetrics;
 import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.exception.TooManyRequestsException;
+import com.example.transaction_service.money.Money;
 import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.StatementService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,15 +26,26 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +53,18 @@ public class AccountControllerTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private TransactionHistoryService transactionHistoryService;
+
+    @Mock
+    private StatementService statementService;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    @Mock
+    private TransactionMetrics transactionMetrics;
+
     @InjectMocks
     private AccountController accountController;
 
@@ -41,8 +77,12 @@ public class AccountControllerTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Dates as ISO strings, as Spring Boot configures Jackson
         mockMvc = MockMvcBuilders.standaloneSetup(accountController)
                 .setControllerAdvice(globalExceptionHandler)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build()))
                 .build();
     }
 
@@ -124,4 +164,109 @@ public class AccountControllerTest {
         // Verify service call
         verify(accountService).getAccountById(accountId);
     }
+
+    @Test
+    void testGetAccountBalance_Success() throws Exception {
+        // Arrange
+        when(accountService.getAccountBalance(1L))
+                .thenReturn(new AccountBalanceResponseDTO(1L, new BigDecimal("-25.00")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId").value(1L))
+                .andExpect(jsonPath("$.balance").value(-25.00));
+    }
+
+    @Test
+    void testGetAccountBalance_NotFound() throws Exception {
+        // Arrange
+        when(accountService.getAccountBalance(1L)).thenThrow(new ResourceNotFoundException("Account not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/balance"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode").value(404))
+                .andExpect(jsonPath("$.message").value("Account not found"));
+        verify(transactionMetrics).exceptionHandled(any(ResourceNotFoundException.class));
+    }
+
+    @Test
+    void testGetAccountTransactions_Success() throws Exception {
+        // Arrange
+        TransactionHistoryItemDTO item = new TransactionHistoryItemDTO(7L, 1, Money.parse("-10.00"),
+                Timestamp.from(Instant.parse("2024-03-01T10:15:30Z")));
+        when(transactionHistoryService.getTransactions(eq(1L), eq(1), eq(Instant.parse("2024-03-01T00:00:00Z")),
+                isNull(), eq("abc"), eq(20)))
+                .thenReturn(new TransactionHistoryPageDTO(List.of(item), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/transactions")
+                        .param("operationTypeId", "1")
+                        .param("from", "2024-03-01T00:00:00Z")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(7L))
+                .andExpect(jsonPath("$.transactions[0].amount").value(-10.00))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void testGetAccountTransactions_NotFound() throws Exception {
+        // Arrange
+        when(transactionHistoryService.getTransactions(eq(1L), any(), any(), any(), any(), any()))
+                .thenThrow(new ResourceNotFoundException("Account not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/transactions"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetAccountBalance_RateLimited() throws Exception {
+        // Arrange
+        when(admissionControl.admit(1L)).thenThrow(new TooManyRequestsException("Too many requests for account 1.", 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/balance"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void testGetAccountStatement_Success() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.parse("2024-03-01");
+        LocalDate to = LocalDate.parse("2024-03-31");
+        StatementDayDTO day = new StatementDayDTO(LocalDate.parse("2024-03-02"), 1, 2, Money.parse("-30.00"),
+                Money.ZERO);
+        when(statementService.getStatement(1L, from, to))
+                .thenReturn(new StatementResponseDTO(1L, from, to, 2, Money.parse("-30.00"), Money.ZERO, List.of(day)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/statements")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2024-03-01"))
+                .andExpect(jsonPath("$.transactionCount").value(2))
+                .andExpect(jsonPath("$.net").value(-30.00))
+                .andExpect(jsonPath("$.days[0].date").value("2024-03-02"))
+                .andExpect(jsonPath("$.days[0].debits").value(-30.00));
+    }
+
+    @Test
+    void testGetAccountStatement_InvalidRange() throws Exception {
+        // Arrange
+        when(statementService.getStatement(eq(1L), any(), any()))
+                .thenThrow(new InvalidRequestException("from must not be after to."));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/accounts/1/statements")
+                        .param("from", "2024-04-01")
+                        .param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.transaction_service.unit.controller;
+
+import com.example.transaction_service.controller.ExportController;
+import com.example.transaction_service.enums.ExportFormat;
+import com.example.transaction_service.enums.ExportTable;
+import com.example.transaction_service.exception.GlobalExceptionHandler;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.service.TransactionExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExportControllerTest {
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExportController exportController = new ExportController(transactionExportService, Duration.ofHours(2));
+        mockMvc = MockMvcBuilders.standaloneSetup(exportController)
+                .setControllerAdvice(new GlobalExceptionHandler(mock(TransactionMetrics.class)))
+                .build();
+    }
+
+    @Test
+    void testExport_StreamsBody() throws Exception {
+        // Arrange
+        when(transactionExportService.resolveTable("transactions")).thenReturn(ExportTable.TRANSACTIONS);
+        when(transactionExportService.resolveFormat("csv")).thenReturn(ExportFormat.CSV);
+        when(transactionExportService.export(eq(ExportTable.TRANSACTIONS), eq(ExportFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write("transaction_id\n1\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/exports/transactions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertEquals(Duration.ofHours(2).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("transaction_id\n1\n"));
+    }
+
+    @Test
+    void testExport_UnknownTable() throws Exception {
+        // Arrange
+        when(transactionExportService.resolveTable("accounts"))
+                .thenThrow(new InvalidRequestException("Invalid export table: accounts"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/exports/accounts"))
+                .andExpect(status().isBadRequest());
+        verify(transactionExportService, never()).export(any(), any(), any());
+    }
+}
@@ -3,20 +3,35 @@ package com.example.transaction_service.unit.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.transaction_service.admission.AdmissionControl;
 import com.example.transaction_service.controller.TransactionController;
 import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
 import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResponseDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResultDTO;
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
 import com.example.transaction_service.dto.response.TransactionResponseDTO;
 import com.example.transaction_service.enums.OperationType;
 import com.example.transaction_service.exception.InvalidRequestException;
 import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.IdempotencyService;
+import com.example.transaction_service.service.InstallmentPaymentBatcher;
+import com.example.transaction_service.service.InstallmentPaymentLocks;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.service.TransactionBatchService;
 import com.example.transaction_service.service.TransactionService;
+import com.example.transaction_service.service.WriteBehindTransactionService;
+import com.example.transaction_service.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -25,7 +40,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.function.Supplier;
 
 class TransactionControllerTest {
 
@@ -35,6 +52,30 @@ class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private TransactionBatchService transactionBatchService;
+
+    @Mock
+    private WriteBehindTransactionService writeBehindTransactionService;
+
+    @Mock
+    private InstallmentPaymentBatcher installmentPaymentBatcher;
+
+    @Mock
+    private InstallmentPaymentLocks installmentPaymentLocks;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private InstallmentSummaryService installmentSummaryService;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
     private MockMvc mockMvc;
 
 
@@ -62,6 +103,66 @@ class TransactionControllerTest {
         verify(transactionService).createTransaction(any(TransactionRequestDTO.class)); // Verify service call
     }
 
+    @Test
+    void testCreateTransaction_WriteBehindMode() throws Exception {
+        // Arrange
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(7L);
+        responseDTO.setMessage("Transaction created successfully");
+
+        when(writeBehindTransactionService.isEnabled()).thenReturn(true);
+        when(writeBehindTransactionService.createTransaction(any(TransactionRequestDTO.class))).thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions")
+                        .contentType("application/json")
+                        .content("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}"))
+                .andExpect(status().is(CREATED.value()))
+                .andExpect(jsonPath("$.transactionId").value(7));
+
+        verify(transactionService, never()).createTransaction(any(TransactionRequestDTO.class));
+    }
+
+    @Test
+    void testCreateTransaction_WithIdempotencyKey() throws Exception {
+        // Arrange
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(5L);
+        responseDTO.setMessage("Transaction created successfully");
+
+        when(idempotencyService.execute(eq("retry-1"), eq(IdempotencyService.CREATE_TRANSACTION), any(), any()))
+                .thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType("application/json")
+                        .content("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}"))
+                .andExpect(status().is(CREATED.value()))
+                .andExpect(jsonPath("$.transactionId").value(5));
+
+        // The service is only reached through the supplier handed to IdempotencyService
+        verify(transactionService, never()).createTransaction(any(TransactionRequestDTO.class));
+    }
+
+    @Test
+    void testCreateTransaction_WithIdempotencyKeyIsNotWrittenBehind() throws Exception {
+        // Arrange
+        when(writeBehindTransactionService.isEnabled()).thenReturn(true);
+        when(idempotencyService.execute(eq("retry-4"), eq(IdempotencyService.CREATE_TRANSACTION), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<TransactionResponseDTO>>getArgument(3).get());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions")
+                        .header("Idempotency-Key", "retry-4")
+                        .contentType("application/json")
+                        .content("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}"))
+                .andExpect(status().is(CREATED.value()));
+
+        verify(transactionService).createTransaction(any(TransactionRequestDTO.class));
+        verify(writeBehindTransactionService, never()).createTransaction(any(TransactionRequestDTO.class));
+    }
+
     @Test
     void testCreateTransaction_Failure() throws Exception {
         // Arrange
@@ -87,6 +188,68 @@ class TransactionControllerTest {
         verify(transactionService).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
     }
 
+    @Test
+    void testPayInstallment_Batched() throws Exception {
+        // Arrange
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(7L);
+        responseDTO.setMessage("Installment payment successful");
+
+        when(installmentPaymentBatcher.isEnabled()).thenReturn(true);
+        when(installmentPaymentBatcher.payInstallmentByNumber(any(PayInstallmentRequestDTO.class)))
+                .thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/installments/pay")
+                        .contentType("application/json")
+                        .content("{\"transactionId\": 1, \"installmentNumber\": 1, \"accountId\": 1, \"amount\": 100}"))
+                .andExpect(status().is(OK.value()))
+                .andExpect(jsonPath("$.transactionId").value(7));
+
+        verify(transactionService, never()).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
+    }
+
+    @Test
+    void testPayInstallment_WithIdempotencyKeyIsNotBatched() throws Exception {
+        // Arrange
+        when(installmentPaymentBatcher.isEnabled()).thenReturn(true);
+        when(idempotencyService.execute(eq("retry-3"), eq(IdempotencyService.PAY_INSTALLMENT), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<TransactionResponseDTO>>getArgument(3).get());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/installments/pay")
+                        .header("Idempotency-Key", "retry-3")
+                        .contentType("application/json")
+                        .content("{\"transactionId\": 1, \"installmentNumber\": 1, \"accountId\": 1, \"amount\": 100}"))
+                .andExpect(status().is(OK.value()));
+
+        verify(transactionService).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
+        verify(installmentPaymentBatcher, never()).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
+        // The idempotency transaction starts after the stripe is taken
+        verify(installmentPaymentLocks).lock(1L);
+    }
+
+    @Test
+    void testPayInstallment_WithIdempotencyKey() throws Exception {
+        // Arrange
+        TransactionResponseDTO responseDTO = new TransactionResponseDTO();
+        responseDTO.setTransactionId(9L);
+        responseDTO.setMessage("Installment payment successful");
+
+        when(idempotencyService.execute(eq("retry-2"), eq(IdempotencyService.PAY_INSTALLMENT), any(), any()))
+                .thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/installments/pay")
+                        .header("Idempotency-Key", "retry-2")
+                        .contentType("application/json")
+                        .content("{\"transactionId\": 1, \"installmentNumber\": 1, \"accountId\": 1, \"amount\": 100}"))
+                .andExpect(status().is(OK.value()))
+                .andExpect(jsonPath("$.transactionId").value(9));
+
+        verify(transactionService, never()).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
+    }
+
     @Test
     void testPayInstallment_Failure() throws Exception {
 
@@ -95,18 +258,57 @@ class TransactionControllerTest {
         payInstallmentRequestDTO.setTransactionId(1L);
         payInstallmentRequestDTO.setInstallmentNumber(100);
         payInstallmentRequestDTO.setAccountId(19L);
-        payInstallmentRequestDTO.setAmount(BigDecimal.valueOf(100));
+        payInstallmentRequestDTO.setAmount(Money.of(100));
 
         doThrow(new ResourceNotFoundException("Installment not found"))
                 .when(transactionService).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
-                transactionController.payInstallment(payInstallmentRequestDTO));
+                transactionController.payInstallment(null, payInstallmentRequestDTO));
 
         assertEquals("Installment not found", exception.getMessage());
 
         // Verify service call
         verify(transactionService).payInstallmentByNumber(any(PayInstallmentRequestDTO.class));
     }
-}
 
+    @Test
+    void testCreateTransactionsBatch_Success() throws Exception {
+        // Arrange
+        BatchTransactionResponseDTO responseDTO = new BatchTransactionResponseDTO();
+        responseDTO.setReceived(2);
+        responseDTO.addCreated();
+        responseDTO.addFailure(BatchTransactionResultDTO.failed(1, "Invalid OperationType ID: 9"));
+
+        when(transactionBatchService.ingest(any(InputStream.class))).thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType("application/x-ndjson")
+                        .content("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}\n"
+                                + "{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 9}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.failures.length()").value(1))
+                .andExpect(jsonPath("$.failures[0].index").value(1))
+                .andExpect(jsonPath("$.failures[0].error").value("Invalid OperationType ID: 9"));
+
+        verify(transactionBatchService).ingest(any(InputStream.class));
+    }
+
+    @Test
+    void testGetInstallmentSummary() throws Exception {
+        // Arrange
+        when(installmentSummaryService.getSummary(4L))
+                .thenReturn(new InstallmentSummaryResponseDTO(4L, 2, new BigDecimal("20.00"), 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/transactions/4/installments/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value(4))
+                .andExpect(jsonPath("$.remainingCount").value(2))
+                .andExpect(jsonPath("$.remainingAmount").value(20.00))
+                .andExpect(jsonPath("$.nextInstallmentNumber").value(3));
+    }
+}
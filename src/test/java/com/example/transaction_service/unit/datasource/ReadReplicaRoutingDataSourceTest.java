@@ -0,0 +1,147 @@
+package com.example.transaction_service.unit.datasource;
+
+import com.example.transaction_service.datasource.ReadReplicaRoutingDataSource;
+import com.example.transaction_service.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two independent in-memory H2 databases stand in for the primary and the replica. Replication is
+ * simulated by writing the replica's heartbeat row from the test.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private final MutableClock clock = new MutableClock();
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDataSource = h2("primary");
+        DataSource replicaDataSource = h2("replica");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.execute("CREATE TABLE node (name VARCHAR(16))");
+            database.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+
+        replicaLagMonitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, new SimpleMeterRegistry(),
+                5000, clock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+    }
+
+    private void replicate() {
+        replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)",
+                primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class));
+    }
+
+    private String node(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> routed.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadsStayOnPrimaryUntilReplicaHasBeenChecked() {
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals("primary", node(readOnly));
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToFreshReplica() {
+        replicaLagMonitor.afterSingletonsInstantiated();
+        replicate();
+        clock.advance(Duration.ofSeconds(1));
+        replicaLagMonitor.check();
+
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        assertEquals(1000, replicaLagMonitor.getStalenessMillis());
+        assertEquals("replica", node(readOnly));
+        assertEquals("primary", node(readWrite));
+    }
+
+    @Test
+    void testStaleReplicaFallsBackToPrimary() {
+        replicaLagMonitor.afterSingletonsInstantiated();
+        replicate();
+        replicaLagMonitor.check();
+        assertEquals("replica", node(readOnly));
+
+        // Replication stops; heartbeats keep landing on the primary only
+        clock.advance(Duration.ofSeconds(6));
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(6000, replicaLagMonitor.getStalenessMillis());
+        assertEquals("primary", node(readOnly));
+
+        replicate();
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        replicaLagMonitor.afterSingletonsInstantiated();
+        replica.execute("DROP TABLE replica_heartbeat");
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(-1, replicaLagMonitor.getStalenessMillis());
+        assertEquals("primary", node(readOnly));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.transaction_service.unit.enums;
+
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.money.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationTypeTest {
+
+    @Test
+    void testFromId_ResolvesEveryType() {
+        for (OperationType type : OperationType.values()) {
+            assertSame(type, OperationType.fromId(type.getId()));
+            assertSame(type, OperationType.find(type.getId()));
+        }
+    }
+
+    @Test
+    void testFromId_UnknownIds() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> OperationType.fromId(9));
+        assertEquals("Invalid OperationType ID: 9", ex.getMessage());
+        assertNull(OperationType.find(0));
+        assertNull(OperationType.find(-1));
+        assertNull(OperationType.find(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testApplySign() {
+        Money amount = Money.parse("12.50");
+
+        assertEquals(Money.parse("-12.50"), OperationType.NORMAL_PURCHASE.applySign(amount));
+        assertEquals(Money.parse("-12.50"), OperationType.PURCHASE_INSTALLMENTS.applySign(amount));
+        assertEquals(Money.parse("-12.50"), OperationType.WITHDRAWAL.applySign(amount));
+        assertSame(amount, OperationType.CREDIT_VOUCHER.applySign(amount));
+        assertSame(amount, OperationType.INSTALLMENT_PAYMENT.applySign(amount));
+    }
+
+    @Test
+    void testRequiresInstallments_OnlyForInstallmentPurchases() {
+        for (OperationType type : OperationType.values()) {
+            assertEquals(type == OperationType.PURCHASE_INSTALLMENTS, type.requiresInstallments());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.transaction_service.unit.id;
+
+import com.example.transaction_service.id.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-10T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void testIdsAreIncreasingAndCarryTheirFields() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, clock);
+
+        long first = generator.nextId(3);
+        long second = generator.nextId(3);
+
+        assertTrue(second > first);
+        assertEquals(3, SnowflakeIdGenerator.shardOf(first));
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(first));
+        assertTrue(first >= SnowflakeIdGenerator.FIRST_GENERATED_ID);
+    }
+
+    @Test
+    void testClockSteppingBackDoesNotRepeatIds() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock);
+        long before = generator.nextId(0);
+
+        clock.instant = NOW.minusSeconds(10);
+        long after = generator.nextId(0);
+
+        assertTrue(after > before);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(after));
+    }
+
+    @Test
+    void testSequenceOverflowMovesToTheNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(ids.add(generator.nextId(0)));
+        }
+
+        long last = generator.nextId(0);
+        assertEquals(NOW.plusMillis(1), SnowflakeIdGenerator.timestampOf(last));
+    }
+
+    @Test
+    void testAdvancePastSkipsIdsFromAnEarlierRun() {
+        long stored = new SnowflakeIdGenerator(0, new MutableClock(NOW.plusSeconds(60))).nextId(0);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock);
+
+        generator.advancePast(stored);
+
+        assertTrue(generator.nextId(0) > stored);
+    }
+
+    @Test
+    void testIdsBeforeTheGeneratorBelongToShardZero() {
+        assertEquals(0, SnowflakeIdGenerator.shardOf(42L));
+    }
+
+    @Test
+    void testRejectsOutOfRangeWorkerAndShard() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKERS, clock));
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock);
+        assertThrows(IllegalArgumentException.class, () -> generator.nextId(SnowflakeIdGenerator.MAX_SHARDS));
+    }
+
+    @Test
+    void testConcurrentCallersNeverShareAnId() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Clock.systemUTC());
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.nextId(0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(160_000, ids.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
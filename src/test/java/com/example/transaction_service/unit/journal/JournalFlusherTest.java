@@ -0,0 +1,120 @@
+package com.example.transaction_service.unit.journal;
+
+import com.example.transaction_service.journal.JournalEntry;
+import com.example.transaction_service.journal.JournalFlusher;
+import com.example.transaction_service.journal.TransactionJournal;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.DailyStatementRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JournalFlusherTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Mock
+    private TransactionOutbox transactionOutbox;
+
+    @Mock
+    private DailyStatementRollup dailyStatementRollup;
+
+    private TransactionJournal journal;
+    private JournalFlusher flusher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(namedParameterJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of());
+
+        journal = new TransactionJournal(directory.resolve("journal"), 64 * 1024);
+        flusher = new JournalFlusher(journal, directory.resolve("journal.rejected"), jdbcTemplate,
+                namedParameterJdbcTemplate, transactionTemplate, accountBalanceLedger, transactionOutbox,
+                dailyStatementRollup, 100, 50);
+    }
+
+    private static JournalEntry entry(long id) {
+        return new JournalEntry(id, 7L, 1, Money.parse("-12.34"), 1_700_000_000_000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rejectTransaction(long rejectedId) {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<JournalEntry> entries = invocation.getArgument(1);
+            if (entries.stream().anyMatch(entry -> entry.getTransactionId() == rejectedId)) {
+                throw new DataIntegrityViolationException("foreign key violation");
+            }
+            return new int[0][];
+        });
+    }
+
+    @Test
+    void testRejectedEntryIsSetAsideAndTheRestFlushed() throws Exception {
+        rejectTransaction(2L);
+        journal.append(entry(1L));
+        journal.append(entry(2L));
+        journal.append(entry(3L));
+
+        flusher.drain();
+
+        assertEquals(0, journal.pendingBytes());
+        assertEquals(List.of("2,7,1,-12.34,1700000000000"), Files.readAllLines(directory.resolve("journal.rejected")));
+        verify(accountBalanceLedger, times(2)).record(eq(7L), any());
+        journal.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOtherFailuresLeaveTheBatchInTheJournal() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any()))
+                .thenThrow(new QueryTimeoutException("database unavailable"));
+        journal.append(entry(1L));
+
+        flusher.drain();
+
+        assertTrue(journal.pendingBytes() > 0);
+        assertFalse(Files.exists(directory.resolve("journal.rejected")));
+        journal.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.transaction_service.unit.journal;
+
+import com.example.transaction_service.journal.JournalBatch;
+import com.example.transaction_service.journal.JournalEntry;
+import com.example.transaction_service.journal.TransactionJournal;
+import com.example.transaction_service.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private static JournalEntry entry(long id) {
+        return new JournalEntry(id, 7L, 1, Money.parse("-12.34"), 1_700_000_000_000L);
+    }
+
+    @Test
+    void testAppendThenRead() throws Exception {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"), CAPACITY)) {
+            journal.append(entry(1L));
+            journal.append(entry(2L));
+
+            JournalBatch batch = journal.read(10);
+
+            assertEquals(2, batch.getEntries().size());
+            JournalEntry first = batch.getEntries().get(0);
+            assertEquals(1L, first.getTransactionId());
+            assertEquals(7L, first.getAccountId());
+            assertEquals(1, first.getOperationTypeId());
+            assertEquals(Money.parse("-12.34"), first.getAmount());
+            assertEquals(1_700_000_000_000L, first.getEventTimeMillis());
+            assertEquals(2L, batch.getEntries().get(1).getTransactionId());
+        }
+    }
+
+    @Test
+    void testReadRespectsBatchSizeAndCheckpoint() throws Exception {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"), CAPACITY)) {
+            for (long id = 1; id <= 5; id++) {
+                journal.append(entry(id));
+            }
+
+            JournalBatch first = journal.read(3);
+            assertEquals(3, first.getEntries().size());
+            journal.checkpoint(first.getEndOffset());
+
+            JournalBatch second = journal.read(10);
+            assertEquals(2, second.getEntries().size());
+            assertEquals(4L, second.getEntries().get(0).getTransactionId());
+            journal.checkpoint(second.getEndOffset());
+
+            assertTrue(journal.read(10).isEmpty());
+            assertEquals(0, journal.pendingBytes());
+        }
+    }
+
+    @Test
+    void testReopenReplaysEntriesAfterCheckpoint() throws Exception {
+        Path path = directory.resolve("journal");
+        try (TransactionJournal journal = new TransactionJournal(path, CAPACITY)) {
+            journal.append(entry(1L));
+            journal.checkpoint(journal.read(1).getEndOffset());
+            journal.append(entry(2L));
+            journal.append(entry(3L));
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(path, CAPACITY)) {
+            JournalBatch replay = journal.read(10);
+            assertEquals(2, replay.getEntries().size());
+            assertEquals(2L, replay.getEntries().get(0).getTransactionId());
+            assertEquals(3L, replay.getEntries().get(1).getTransactionId());
+        }
+    }
+
+    @Test
+    void testTornRecordIsDiscardedOnRecovery() throws Exception {
+        Path path = directory.resolve("journal");
+        int endOfFirst;
+        try (TransactionJournal journal = new TransactionJournal(path, CAPACITY)) {
+            journal.append(entry(1L));
+            endOfFirst = journal.read(1).getEndOffset();
+            journal.append(entry(2L));
+        }
+
+        // Corrupt a payload byte of the second record, as if the crash hit before it was synced
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(endOfFirst + 12);
+            file.write(0x7F);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(path, CAPACITY)) {
+            JournalBatch replay = journal.read(10);
+            assertEquals(1, replay.getEntries().size());
+            assertEquals(1L, replay.getEntries().get(0).getTransactionId());
+        }
+    }
+
+    @Test
+    void testFullJournalRewindsOnceDrained() throws Exception {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"), 1024)) {
+            long id = 0;
+            // Fill, drain and refill the file several times over
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 10; i++) {
+                    journal.append(entry(++id));
+                }
+                JournalBatch batch;
+                while (!(batch = journal.read(4)).isEmpty()) {
+                    journal.checkpoint(batch.getEndOffset());
+                }
+            }
+            assertEquals(0, journal.pendingBytes());
+        }
+    }
+
+    @Test
+    void testConcurrentAppendersShareTheJournal() throws Exception {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"), 1024 * 1024)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (long id = 1; id <= 1_000; id++) {
+                long transactionId = id;
+                executor.submit(() -> journal.append(entry(transactionId)));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            assertEquals(1_000, journal.read(2_000).getEntries().size());
+        }
+    }
+
+    @Test
+    void testDrainedJournalRewindsToTheStart() throws Exception {
+        try (TransactionJournal journal = new TransactionJournal(directory.resolve("journal"), CAPACITY)) {
+            journal.append(entry(1L));
+            int endOfFirst = journal.read(1).getEndOffset();
+            journal.checkpoint(endOfFirst);
+
+            journal.append(entry(2L));
+            assertEquals(endOfFirst, journal.read(1).getEndOffset());
+        }
+    }
+
+    @Test
+    void testCapacityMustFitInOneMappedFile() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionJournal(directory.resolve("journal"), 2048L * 1024 * 1024));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionJournal(directory.resolve("journal"), 0));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.transaction_service.unit.metrics;
+
+import com.example.transaction_service.metrics.HibernateStatisticsMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HibernateStatisticsMetricsTest {
+
+    @Test
+    void testCountersReadTheLiveStatistics() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Statistics statistics = mock(Statistics.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getPrepareStatementCount()).thenReturn(3L, 7L);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new HibernateStatisticsMetrics(entityManagerFactory).bindTo(registry);
+
+        assertEquals(3, registry.get("hibernate.statements").functionCounter().count());
+        assertEquals(7, registry.get("hibernate.statements").functionCounter().count());
+        assertEquals(0, registry.get("hibernate.flushes").functionCounter().count());
+    }
+}
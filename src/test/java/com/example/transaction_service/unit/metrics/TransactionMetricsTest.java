@@ -0,0 +1,67 @@
+package com.example.transaction_service.unit.metrics;
+
+import com.example.transaction_service.enums.OperationType;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.metrics.TransactionMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionMetricsTest {
+
+    @Test
+    void testLap_RecordsStageAndReturnsNextMark() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionMetrics metrics = new TransactionMetrics(registry, true, false);
+
+        long start = metrics.start();
+        long next = metrics.lap(Stage.PAY_LOCK, start);
+
+        assertTrue(next >= start);
+        Timer timer = registry.get("transaction.stage").tag("operation", "pay-installment").tag("stage", "lock").timer();
+        assertEquals(1, timer.count());
+        assertEquals(0, registry.get("transaction.stage").tag("stage", "mark-paid").timer().count());
+    }
+
+    @Test
+    void testTransactionCreated_CountsPerOperationType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionMetrics metrics = new TransactionMetrics(registry, true, false);
+
+        metrics.transactionCreated(OperationType.WITHDRAWAL);
+        metrics.transactionCreated(OperationType.WITHDRAWAL);
+
+        assertEquals(2, registry.get("transactions.created").tag("operation_type", "WITHDRAWAL").counter().count());
+        assertEquals(0, registry.get("transactions.created").tag("operation_type", "CREDIT_VOUCHER").counter().count());
+    }
+
+    @Test
+    void testExceptionHandled_CountsPerExceptionType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionMetrics metrics = new TransactionMetrics(registry, true, false);
+
+        metrics.exceptionHandled(new InvalidRequestException("bad"));
+        metrics.exceptionHandled(new InvalidRequestException("worse"));
+        metrics.exceptionHandled(new IllegalStateException("boom"));
+
+        assertEquals(2, registry.get("transaction.errors").tag("exception", "InvalidRequestException").counter().count());
+        assertEquals(1, registry.get("transaction.errors").tag("exception", "IllegalStateException").counter().count());
+    }
+
+    @Test
+    void testDisabled_RegistersAndRecordsNothing() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionMetrics metrics = new TransactionMetrics(registry, false, true);
+
+        assertEquals(0L, metrics.start());
+        assertEquals(0L, metrics.lap(Stage.CREATE_INSERT, 0L));
+        metrics.transactionCreated(OperationType.NORMAL_PURCHASE);
+        metrics.exceptionHandled(new IllegalStateException("boom"));
+
+        assertFalse(metrics.isEnabled());
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
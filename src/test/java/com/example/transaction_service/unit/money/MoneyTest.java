@@ -0,0 +1,97 @@
+package com.example.transaction_service.unit.money;
+
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.money.MoneyConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static class Body {
+        public Money amount;
+    }
+
+    @Test
+    void testParseMatchesBigDecimalRoundedToCents() {
+        for (String text : new String[]{"0", "1", "-1", "10.5", "10.05", "0.005", "0.004", "-0.005", "12.345",
+                "+3.10", ".5", "5.", "1e2", "-92233720368547758.07"}) {
+            assertEquals(Money.of(new BigDecimal(text)), Money.parse(text), text);
+        }
+        assertEquals(1234, Money.parse("12.34").getCents());
+    }
+
+    @Test
+    void testParseRejectsNonNumbers() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.2.3"));
+    }
+
+    @Test
+    void testArithmeticOverflowThrows() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.parse("99999999999999999999"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void testArithmetic() {
+        Money amount = Money.parse("30.50");
+
+        assertEquals(Money.parse("-69.50"), Money.of(-100).plus(amount));
+        assertEquals(Money.parse("-30.50"), amount.negate());
+        assertEquals(Money.parse("20.25"), amount.minus(Money.parse("10.25")));
+        assertTrue(amount.isPositive());
+        assertFalse(Money.ZERO.isPositive());
+        assertTrue(Money.of(1).compareTo(amount) < 0);
+    }
+
+    @Test
+    void testToStringIsThePlainTwoPlaceDecimal() {
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("1234.50", Money.parse("1234.5").toString());
+        assertEquals(new BigDecimal("-12.30"), Money.parse("-12.3").toBigDecimal());
+        assertEquals(Money.ofCents(Long.MIN_VALUE).toBigDecimal().toPlainString(), Money.ofCents(Long.MIN_VALUE).toString());
+    }
+
+    @Test
+    void testConverterKeepsTheColumnFormat() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("-100.00"), converter.convertToDatabaseColumn(Money.of(-100)));
+        assertEquals(Money.parse("25.5"), converter.convertToEntityAttribute(new BigDecimal("25.50")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        assertEquals(Money.of(100), objectMapper.readValue("{\"amount\": 100}", Body.class).amount);
+        assertEquals(Money.parse("12.35"), objectMapper.readValue("{\"amount\": 12.345}", Body.class).amount);
+        assertEquals(Money.parse("7.50"), objectMapper.readValue("{\"amount\": \"7.5\"}", Body.class).amount);
+        assertNull(objectMapper.readValue("{\"amount\": null}", Body.class).amount);
+
+        Body body = new Body();
+        body.amount = Money.parse("-10");
+        assertEquals("{\"amount\":-10.00}", objectMapper.writeValueAsString(body));
+    }
+
+    @Test
+    void testJsonRejectsAmountsThatDoNotFit() {
+        assertThrows(InvalidFormatException.class, () ->
+                objectMapper.readValue("{\"amount\": 123456789012345678901234}", Body.class));
+        assertThrows(InvalidFormatException.class, () ->
+                objectMapper.readValue("{\"amount\": \"ten\"}", Body.class));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.transaction_service.unit.outbox;
+
+import com.example.transaction_service.entity.OutboxEvent;
+import com.example.transaction_service.outbox.InMemoryOutboxSink;
+import com.example.transaction_service.outbox.OutboxRelay;
+import com.example.transaction_service.outbox.OutboxSink;
+import com.example.transaction_service.repository.OutboxEventRepository;
+import com.example.transaction_service.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:10Z");
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryOutboxSink sink = new InMemoryOutboxSink();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    private OutboxRelay relay(OutboxSink outboxSink) {
+        return new OutboxRelay(outboxEventRepository, outboxSink, new TransactionTemplate(transactionManager),
+                new ShardRouter(1), meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC), 2, 60_000);
+    }
+
+    private static OutboxEvent event(long id) {
+        OutboxEvent event = mock(OutboxEvent.class);
+        when(event.getId()).thenReturn(id);
+        when(event.getCreatedAt()).thenReturn(Timestamp.from(NOW.minusSeconds(4)));
+        return event;
+    }
+
+    @Test
+    void testDrainPublishesAndDeletesBatchByBatch() {
+        OutboxEvent first = event(10L);
+        OutboxEvent second = event(20L);
+        OutboxEvent third = event(30L);
+        when(outboxEventRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(first, second));
+        when(outboxEventRepository.findByIdGreaterThanOrderById(eq(20L), any(Limit.class)))
+                .thenReturn(List.of(third));
+        when(outboxEventRepository.findByIdGreaterThanOrderById(eq(30L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        try (OutboxRelay relay = relay(sink)) {
+            relay.drain();
+
+            assertEquals(List.of(first, second, third), sink.getEvents());
+            verify(outboxEventRepository).deleteByIds(List.of(10L, 20L));
+            verify(outboxEventRepository).deleteByIds(List.of(30L));
+            assertEquals(3, meterRegistry.counter("outbox.published").count());
+            assertEquals(3, meterRegistry.timer("outbox.lag").count());
+            assertEquals(4000, meterRegistry.timer("outbox.lag").max(TimeUnit.MILLISECONDS));
+            assertEquals(0, relay.getBacklogAgeMillis());
+        }
+    }
+
+    @Test
+    void testDrainWithNothingPendingPublishesNothing() {
+        when(outboxEventRepository.findByIdGreaterThanOrderById(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        try (OutboxRelay relay = relay(sink)) {
+            relay.drain();
+
+            assertTrue(sink.getEvents().isEmpty());
+            verify(outboxEventRepository, never()).deleteByIds(any());
+        }
+    }
+
+    @Test
+    void testSinkFailureKeepsEventsForTheNextRun() {
+        OutboxEvent first = event(10L);
+        when(outboxEventRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(first));
+        OutboxSink failingSink = events -> {
+            throw new IllegalStateException("Sink unavailable");
+        };
+
+        try (OutboxRelay relay = relay(failingSink)) {
+            relay.drain();
+
+            verify(outboxEventRepository, never()).deleteByIds(any());
+            assertEquals(1, meterRegistry.counter("outbox.publish.failures").count());
+            assertEquals(0, meterRegistry.counter("outbox.published").count());
+            assertEquals(4000, relay.getBacklogAgeMillis());
+            assertEquals(4000, meterRegistry.get("outbox.backlog.age").gauge().value());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.transaction_service.unit.scheduler;
+
+import com.example.transaction_service.repository.IdempotencyRecordRepository;
+import com.example.transaction_service.scheduler.IdempotencyKeyCleanup;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyCleanupTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testPurgeExpired_DeletesKeysOlderThanTheTtlOnEveryShard() {
+        IdempotencyKeyCleanup cleanup = new IdempotencyKeyCleanup(idempotencyRecordRepository, transactionManager,
+                new ShardRouter(2), Duration.ofHours(24),
+                Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneOffset.UTC));
+        when(idempotencyRecordRepository.deleteCreatedBefore(Instant.parse("2024-03-14T10:00:00Z")))
+                .thenReturn(3, 4);
+
+        assertEquals(7, cleanup.purgeExpired());
+        verify(idempotencyRecordRepository, times(2)).deleteCreatedBefore(Instant.parse("2024-03-14T10:00:00Z"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.transaction_service.unit.scheduler;
+
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.scheduler.InstallmentRemindersEvent;
+import com.example.transaction_service.scheduler.InstallmentScheduler;
+import com.example.transaction_service.scheduler.InstallmentsOverdueEvent;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InstallmentSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 10);
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InstallmentScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock clock = Clock.fixed(Instant.parse("2024-06-10T12:00:00Z"), ZoneOffset.UTC);
+        scheduler = new InstallmentScheduler(installmentRepository, eventPublisher, transactionManager, new ShardRouter(1),
+                clock, 64, 3, 2);
+        // Every id handed back is still pending unless a test says otherwise
+        when(installmentRepository.findPendingIds(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+
+    private static Installment installment(long id, LocalDate dueDate) {
+        Installment installment = mock(Installment.class);
+        when(installment.getId()).thenReturn(id);
+        when(installment.getDueDate()).thenReturn(dueDate);
+        return installment;
+    }
+
+    @Test
+    void testReload_LoadsPendingInstallments() {
+        when(installmentRepository.streamPendingDueDates()).thenReturn(Stream.of(
+                new Object[]{1L, TODAY.minusDays(1)},
+                new Object[]{2L, TODAY.plusMonths(1)}));
+
+        scheduler.reload();
+
+        assertEquals(2, scheduler.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRunDueChecks_MarksOverdueInBatches() {
+        scheduler.track(List.of(installment(1L, TODAY.minusDays(2)), installment(2L, TODAY.minusDays(1)),
+                installment(3L, TODAY.minusDays(1)), installment(4L, TODAY)));
+
+        scheduler.runDueChecks();
+
+        // batch size 2: ids 1-3 are overdue, 4 is due today and not yet overdue
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(installmentRepository, times(2)).markOverdue(captor.capture());
+        assertEquals(List.of(2, 1), captor.getAllValues().stream().map(Collection::size).toList());
+        verify(eventPublisher, times(2)).publishEvent(any(InstallmentsOverdueEvent.class));
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    @Test
+    void testRunDueChecks_SkipsInstallmentsPaidInTheMeantime() {
+        when(installmentRepository.findPendingIds(anyCollection())).thenReturn(List.of());
+        scheduler.track(List.of(installment(1L, TODAY.minusDays(1))));
+
+        scheduler.runDueChecks();
+
+        verify(installmentRepository, never()).markOverdue(anyCollection());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testRunDueChecks_SendsRemindersWithoutRemovingInstallments() {
+        scheduler.track(List.of(installment(1L, TODAY.plusDays(3)), installment(2L, TODAY.plusDays(4))));
+
+        scheduler.runDueChecks();
+
+        ArgumentCaptor<InstallmentRemindersEvent> captor = ArgumentCaptor.forClass(InstallmentRemindersEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(TODAY.plusDays(3), captor.getValue().getDueDate());
+        assertEquals(List.of(1L), captor.getValue().getInstallmentIds());
+        assertEquals(2, scheduler.pendingCount());
+    }
+
+    @Test
+    void testRunDueChecks_SecondRunOnTheSameDaySendsNoReminders() {
+        scheduler.track(List.of(installment(1L, TODAY.plusDays(3))));
+
+        scheduler.runDueChecks();
+        scheduler.runDueChecks();
+
+        verify(eventPublisher, times(1)).publishEvent(any(InstallmentRemindersEvent.class));
+    }
+
+    @Test
+    void testRunDueChecks_CatchesUpMissedReminderDays() {
+        Clock clock = mock(Clock.class);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(Instant.parse("2024-06-10T12:00:00Z"));
+        scheduler = new InstallmentScheduler(installmentRepository, eventPublisher, transactionManager, new ShardRouter(1),
+                clock, 64, 3, 2);
+        scheduler.track(List.of(installment(1L, TODAY.plusDays(3)), installment(2L, TODAY.plusDays(4)),
+                installment(3L, TODAY.plusDays(5))));
+
+        scheduler.runDueChecks();
+        // The run on the 11th never happened
+        when(clock.instant()).thenReturn(Instant.parse("2024-06-12T12:00:00Z"));
+        scheduler.runDueChecks();
+
+        ArgumentCaptor<InstallmentRemindersEvent> captor = ArgumentCaptor.forClass(InstallmentRemindersEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(captor.capture());
+        assertEquals(List.of(TODAY.plusDays(3), TODAY.plusDays(4), TODAY.plusDays(5)),
+                captor.getAllValues().stream().map(InstallmentRemindersEvent::getDueDate).toList());
+    }
+
+    @Test
+    void testRunDueChecks_FailedBatchIsRetried() {
+        when(installmentRepository.markOverdue(anyCollection()))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(1);
+        scheduler.track(List.of(installment(1L, TODAY.minusDays(1))));
+
+        scheduler.runDueChecks();
+        assertEquals(1, scheduler.pendingCount());
+
+        scheduler.runDueChecks();
+        assertEquals(0, scheduler.pendingCount());
+        verify(eventPublisher).publishEvent(any(InstallmentsOverdueEvent.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.transaction_service.unit.scheduler;
+
+import com.example.transaction_service.scheduler.InstallmentTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstallmentTimingWheelTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    void testAdvanceTo_ReturnsIdsDueBeforeTheNewDay() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 16);
+        wheel.schedule(1L, TODAY);
+        wheel.schedule(2L, TODAY.plusDays(1));
+        wheel.schedule(3L, TODAY.plusDays(2));
+
+        assertArrayEquals(new long[0], wheel.advanceTo(TODAY));
+        assertArrayEquals(new long[]{1L}, wheel.advanceTo(TODAY.plusDays(1)));
+        assertArrayEquals(new long[]{2L, 3L}, sorted(wheel.advanceTo(TODAY.plusDays(3))));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testSchedule_PastDueDateIsReturnedOnNextAdvance() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 16);
+        wheel.schedule(1L, TODAY.minusDays(30));
+
+        assertArrayEquals(new long[]{1L}, wheel.advanceTo(TODAY));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPeek_LeavesIdsInPlace() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 16);
+        wheel.schedule(1L, TODAY.plusDays(3));
+        wheel.schedule(2L, TODAY.plusDays(3));
+
+        assertArrayEquals(new long[]{1L, 2L}, wheel.peek(TODAY.plusDays(3)));
+        assertArrayEquals(new long[0], wheel.peek(TODAY.plusDays(4)));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void testDueDatesBeyondTheHorizonCascadeIntoTheWheel() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 8);
+        wheel.schedule(1L, TODAY.plusDays(20));
+
+        assertArrayEquals(new long[0], wheel.peek(TODAY.plusDays(20)));
+        wheel.advanceTo(TODAY.plusDays(15));
+        assertArrayEquals(new long[]{1L}, wheel.peek(TODAY.plusDays(20)));
+        assertArrayEquals(new long[]{1L}, wheel.advanceTo(TODAY.plusDays(21)));
+    }
+
+    @Test
+    void testAdvancingPastTheWholeWheelDrainsEverySlot() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 8);
+        for (int day = 0; day < 8; day++) {
+            wheel.schedule(day, TODAY.plusDays(day));
+        }
+        wheel.schedule(100L, TODAY.plusDays(50));
+
+        long[] due = wheel.advanceTo(TODAY.plusDays(100));
+
+        assertEquals(9, due.length);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testManyInstallmentsOnOneDay() {
+        InstallmentTimingWheel wheel = new InstallmentTimingWheel(TODAY, 4096);
+        for (long id = 0; id < 100_000; id++) {
+            wheel.schedule(id, TODAY.plusMonths(1 + id % 48));
+        }
+
+        assertEquals(100_000, wheel.size());
+        assertEquals(100_000, wheel.advanceTo(TODAY.plusYears(5)).length);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountBalanceLedgerTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountBalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ledger = new AccountBalanceLedger(transactionRepository, transactionManager, new ShardRouter(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetBalance_UnknownAccountIsZero() {
+        assertEquals(new BigDecimal("0.00"), ledger.getBalance(42L));
+    }
+
+    @Test
+    void testRecord_AccumulatesSignedAmounts() {
+        ledger.record(1L, Money.parse("-100.00"));
+        ledger.record(1L, Money.parse("30.50"));
+        ledger.record(2L, Money.of(10));
+
+        assertEquals(new BigDecimal("-69.50"), ledger.getBalance(1L));
+        assertEquals(new BigDecimal("10.00"), ledger.getBalance(2L));
+    }
+
+    @Test
+    void testRecord_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.record(1L, Money.of(-100));
+        assertEquals(new BigDecimal("0.00"), ledger.getBalance(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(new BigDecimal("-100.00"), ledger.getBalance(1L));
+    }
+
+    @Test
+    void testRecord_ConcurrentWritersAreNotLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.submit(() -> ledger.record(1L, Money.of(1)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("10000.00"), ledger.getBalance(1L));
+    }
+
+    @Test
+    void testRebuild_LoadsBalancesFromRepository() {
+        ledger.record(9L, Money.of(10));
+        when(transactionRepository.streamBalancesByAccount()).thenReturn(Stream.of(
+                new Object[]{1L, new BigDecimal("-250.00")},
+                new Object[]{2L, new BigDecimal("75.00")}));
+
+        ledger.rebuild();
+
+        assertEquals(new BigDecimal("-250.00"), ledger.getBalance(1L));
+        assertEquals(new BigDecimal("75.00"), ledger.getBalance(2L));
+        assertEquals(new BigDecimal("0.00"), ledger.getBalance(9L));
+    }
+}
@@ -3,23 +3,42 @@ package com.example.transaction_service.unit.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.cache.KnownAccountIds;
 import com.example.transaction_service.dto.request.AccountRequestDTO;
+import com.example.transaction_service.dto.response.AccountBalanceResponseDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.exception.ResourceNotFoundException;
 import com.example.transaction_service.repository.AccountRepository;
+import com.example.transaction_service.service.AccountBalanceLedger;
 import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private KnownAccountIds knownAccountIds;
+
+    @Mock
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Mock
+    private ShardRouter shardRouter;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -49,6 +68,8 @@ public class AccountServiceTest {
         assertEquals(1L, savedAccount.getAccountId());
         assertEquals(accountRequestDTO.getDocumentNumber(), savedAccount.getDocumentNumber());
         verify(accountRepository, times(1)).save(any(Account.class)); // Verify save was called once
+        verify(accountCache).put(account); // New accounts are written through to the cache
+        verify(knownAccountIds).add(1L);
     }
 
     @Test
@@ -81,6 +102,40 @@ public class AccountServiceTest {
         verify(accountRepository, times(1)).findById(1L); // Verify findById was called once
     }
 
+    @Test
+    void testGetAccountById_CacheHit() {
+        // Arrange
+        Account account = new Account();
+        account.setAccountId(1L);
+        when(accountCache.get(1L)).thenReturn(account);
+
+        // Act
+        Account fetchedAccount = accountService.getAccountById(1L);
+
+        // Assert
+        assertSame(account, fetchedAccount);
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetAccountForWrite_ReadsThePrimary() throws Exception {
+        // Arrange
+        Account account = new Account();
+        account.setAccountId(1L);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        // Act
+        Account fetchedAccount = accountService.getAccountForWrite(1L);
+
+        // Assert
+        assertSame(account, fetchedAccount);
+        verify(accountCache).put(account);
+        // Read-only transactions are routed to the replica
+        Transactional transactional = AccountService.class.getMethod("getAccountForWrite", Long.class)
+                .getAnnotation(Transactional.class);
+        assertFalse(transactional.readOnly());
+    }
+
     @Test
     void testGetAccountById_AccountNotFound() {
         // Arrange
@@ -92,4 +147,30 @@ public class AccountServiceTest {
         assertEquals("Account not found with ID: 1", exception.getMessage());
         verify(accountRepository, times(1)).findById(1L); // Verify findById was called once
     }
+
+    @Test
+    void testGetAccountBalance_Success() {
+        // Arrange
+        Account account = new Account();
+        account.setAccountId(1L);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(accountBalanceLedger.getBalance(1L)).thenReturn(new BigDecimal("-42.50"));
+
+        // Act
+        AccountBalanceResponseDTO balance = accountService.getAccountBalance(1L);
+
+        // Assert
+        assertEquals(1L, balance.getAccountId());
+        assertEquals(new BigDecimal("-42.50"), balance.getBalance());
+    }
+
+    @Test
+    void testGetAccountBalance_AccountNotFound() {
+        // Arrange
+        when(accountRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountBalance(1L));
+        verifyNoInteractions(accountBalanceLedger);
+    }
 }
@@ -0,0 +1,146 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.DailyStatementRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.service.DailyStatementRollup;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+class DailyStatementRollupTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2024-03-15");
+
+    @Mock
+    private DailyStatementRepository dailyStatementRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DailyStatementRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        rollup = new DailyStatementRollup(dailyStatementRepository, transactionRepository, jdbcTemplate,
+                transactionManager, new ShardRouter(1),
+                Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneOffset.UTC));
+        when(dailyStatementRepository.add(anyLong(), any(), any(), anyLong(), any(), any())).thenReturn(1);
+    }
+
+    private static Transaction transaction(int operationTypeId, String amount, String eventDate) {
+        Account account = new Account();
+        account.setAccountId(1L);
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setOperationTypeId(operationTypeId);
+        transaction.setAmount(Money.parse(amount));
+        transaction.setEventDate(Timestamp.from(Instant.parse(eventDate)));
+        return transaction;
+    }
+
+    @Test
+    void testFirstTransactionOfTheDayInsertsThenUpdates() {
+        rollup.record(transaction(1, "-10.00", "2024-03-15T08:00:00Z"));
+        rollup.record(transaction(1, "-5.50", "2024-03-15T09:00:00Z"));
+
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(DAY), eq(1), eq(1L), eq(new BigDecimal("-10.00")),
+                eq(new BigDecimal("0.00")));
+        verify(dailyStatementRepository).add(1L, DAY, 1, 1L, new BigDecimal("-5.50"), new BigDecimal("0.00"));
+    }
+
+    @Test
+    void testUnknownRowIsUpsertedInOneStatement() {
+        rollup.record(transaction(4, "20.00", "2024-03-15T08:00:00Z"));
+
+        verify(jdbcTemplate).update(contains("on duplicate key update"), eq(1L), eq(DAY), eq(4), eq(1L),
+                eq(new BigDecimal("0.00")), eq(new BigDecimal("20.00")));
+        verify(dailyStatementRepository, never()).add(anyLong(), any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void testBatchIsGroupedByAccountDayAndType() {
+        rollup.recordAll(List.of(
+                transaction(1, "-10.00", "2024-03-14T23:59:59Z"),
+                transaction(1, "-10.00", "2024-03-15T00:00:00Z"),
+                transaction(1, "-2.50", "2024-03-15T12:00:00Z"),
+                transaction(4, "7.00", "2024-03-15T12:00:00Z")));
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(DAY), eq(1), eq(2L), eq(new BigDecimal("-12.50")),
+                eq(new BigDecimal("0.00")));
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(DAY.minusDays(1)), eq(1), eq(1L),
+                eq(new BigDecimal("-10.00")), eq(new BigDecimal("0.00")));
+    }
+
+    @Test
+    void testMissingKnownRowIsInsertedAgain() {
+        rollup.record(transaction(1, "-10.00", "2024-03-15T08:00:00Z"));
+        when(dailyStatementRepository.add(anyLong(), any(), any(), anyLong(), any(), any())).thenReturn(0);
+
+        rollup.record(transaction(1, "-1.00", "2024-03-15T09:00:00Z"));
+
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(DAY), eq(1), eq(1L), eq(new BigDecimal("-1.00")),
+                eq(new BigDecimal("0.00")));
+    }
+
+    @Test
+    void testKeyIsRememberedOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rollup.record(transaction(1, "-10.00", "2024-03-15T08:00:00Z"));
+            List<TransactionSynchronization> rolledBack = TransactionSynchronizationManager.getSynchronizations();
+            rolledBack.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+
+            // The row rolled back with its transaction, so the next write inserts it again
+            TransactionSynchronizationManager.initSynchronization();
+            rollup.record(transaction(1, "-1.00", "2024-03-15T09:00:00Z"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        rollup.record(transaction(1, "-2.00", "2024-03-15T10:00:00Z"));
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        verify(dailyStatementRepository).add(1L, DAY, 1, 1L, new BigDecimal("-2.00"), new BigDecimal("0.00"));
+    }
+
+    @Test
+    void testStatementDateIsTheUtcDay() {
+        assertEquals(DAY, DailyStatementRollup.statementDate(Instant.parse("2024-03-15T23:59:59Z").toEpochMilli()));
+        assertEquals(DAY.plusDays(1),
+                DailyStatementRollup.statementDate(Instant.parse("2024-03-16T00:00:00Z").toEpochMilli()));
+    }
+}
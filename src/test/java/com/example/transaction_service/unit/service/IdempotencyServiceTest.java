@@ -0,0 +1,190 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.cache.IdempotencyCache;
+import com.example.transaction_service.dto.response.TransactionResponseDTO;
+import com.example.transaction_service.entity.IdempotencyRecord;
+import com.example.transaction_service.dto.request.TransactionRequestDTO;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.UnprocessableRequestException;
+import com.example.transaction_service.repository.IdempotencyRecordRepository;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final TransactionRequestDTO REQUEST = request("10.00");
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        IdempotencyCache idempotencyCache = new IdempotencyCache(new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        idempotencyService = new IdempotencyService(idempotencyCache, idempotencyRecordRepository, transactionTemplate,
+                new ObjectMapper());
+
+        when(idempotencyRecordRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private static TransactionRequestDTO request(String amount) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setAccountId(1L);
+        request.setOperationTypeId(1);
+        request.setAmount(Money.parse(amount));
+        return request;
+    }
+
+    private Supplier<TransactionResponseDTO> action(long transactionId) {
+        return () -> {
+            executions.incrementAndGet();
+            TransactionResponseDTO response = new TransactionResponseDTO();
+            response.setTransactionId(transactionId);
+            response.setMessage("Transaction created successfully");
+            return response;
+        };
+    }
+
+    @Test
+    void testExecute_RecordsKeyWithTheWrite() {
+        TransactionResponseDTO response = idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                REQUEST, action(10L));
+
+        assertEquals(10L, response.getTransactionId());
+        verify(idempotencyRecordRepository).saveAndFlush(argThat(record ->
+                record.getIdempotencyKey().equals("key-1")
+                        && record.getOperation().equals(IdempotencyService.CREATE_TRANSACTION)
+                        && record.getTransactionId() == 10L
+                && record.getRequestHash().length() == 64));
+    }
+
+    @Test
+    void testExecute_RepeatIsServedFromCache() {
+        TransactionResponseDTO first = idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                REQUEST, action(10L));
+        TransactionResponseDTO second = idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                REQUEST, action(11L));
+
+        assertSame(first, second);
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository, times(1)).findByIdempotencyKey("key-1");
+    }
+
+    @Test
+    void testExecute_RepeatIsServedFromTableAfterCacheMiss() {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setOperation(IdempotencyService.PAY_INSTALLMENT);
+        record.setTransactionId(7L);
+        record.setMessage("Installment payment successful");
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(record));
+
+        TransactionResponseDTO response = idempotencyService.execute("key-1", IdempotencyService.PAY_INSTALLMENT,
+                REQUEST, action(8L));
+
+        assertEquals(7L, response.getTransactionId());
+        assertEquals("Installment payment successful", response.getMessage());
+        assertEquals(0, executions.get());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicateReturnsWinningResponse() {
+        IdempotencyRecord winner = new IdempotencyRecord();
+        winner.setOperation(IdempotencyService.CREATE_TRANSACTION);
+        winner.setTransactionId(3L);
+        winner.setMessage("Transaction created successfully");
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        TransactionResponseDTO response = idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                REQUEST, action(4L));
+
+        assertEquals(3L, response.getTransactionId());
+    }
+
+    @Test
+    void testExecute_KeyReusedForAnotherOperation() {
+        idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION, REQUEST, action(10L));
+
+        UnprocessableRequestException exception = assertThrows(UnprocessableRequestException.class, () ->
+                idempotencyService.execute("key-1", IdempotencyService.PAY_INSTALLMENT, REQUEST, action(11L)));
+
+        assertEquals("Idempotency-Key has already been used for a different request.", exception.getMessage());
+    }
+
+    @Test
+    void testExecute_KeyReusedWithAnotherBody() {
+        idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION, REQUEST, action(10L));
+
+        assertThrows(UnprocessableRequestException.class, () -> idempotencyService.execute("key-1",
+                IdempotencyService.CREATE_TRANSACTION, request("99.00"), action(11L)));
+        // An equal body is still a retry
+        assertEquals(10L, idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                request("10.00"), action(12L)).getTransactionId());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecute_StoredKeyReusedWithAnotherBody() {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setOperation(IdempotencyService.CREATE_TRANSACTION);
+        record.setRequestHash("0".repeat(64));
+        record.setTransactionId(7L);
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(record));
+
+        assertThrows(UnprocessableRequestException.class, () ->
+                idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION, REQUEST, action(8L)));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void testExecute_FailedWriteIsNotRecorded() {
+        assertThrows(InvalidRequestException.class, () ->
+                idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION, REQUEST, () -> {
+                    throw new InvalidRequestException("Transaction amount must be greater than zero.");
+                }));
+
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+        assertEquals(10L, idempotencyService.execute("key-1", IdempotencyService.CREATE_TRANSACTION,
+                REQUEST, action(10L)).getTransactionId());
+    }
+
+    @Test
+    void testExecute_RejectsOversizedKey() {
+        assertThrows(InvalidRequestException.class, () ->
+                idempotencyService.execute("k".repeat(65), IdempotencyService.CREATE_TRANSACTION, REQUEST,
+                        action(1L)));
+    }
+}
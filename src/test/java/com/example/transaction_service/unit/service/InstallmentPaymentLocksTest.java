@@ -0,0 +1,63 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.service.InstallmentPaymentLocks;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstallmentPaymentLocksTest {
+
+    private final InstallmentPaymentLocks locks = new InstallmentPaymentLocks(16);
+
+    @Test
+    void testLock_BlocksSameTransactionIdUntilClosed() throws Exception {
+        CountDownLatch acquired = new CountDownLatch(1);
+        CompletableFuture<Void> other;
+        try (InstallmentPaymentLocks.Stripe ignored = locks.lock(42L)) {
+            other = CompletableFuture.runAsync(() -> {
+                try (InstallmentPaymentLocks.Stripe stripe = locks.lock(42L)) {
+                    acquired.countDown();
+                }
+            });
+            assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        }
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        other.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testLock_IsReentrantOnTheSameThread() {
+        try (InstallmentPaymentLocks.Stripe first = locks.lock(7L);
+             InstallmentPaymentLocks.Stripe second = locks.lock(7L)) {
+            assertNotNull(second);
+        }
+    }
+
+    @Test
+    void testLock_RetakenInsideATransactionStartedWhileHeld() {
+        try (InstallmentPaymentLocks.Stripe outer = locks.lock(3L)) {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try (InstallmentPaymentLocks.Stripe inner = locks.lock(3L)) {
+                assertNotNull(inner);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+        }
+    }
+
+    @Test
+    void testLock_RefusedInsideATransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> locks.lock(1L));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.dto.response.InstallmentSummaryResponseDTO;
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.InstallmentSummary;
+import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.service.InstallmentSummaryService;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InstallmentSummaryServiceTest {
+
+    @Mock
+    private InstallmentSummaryRepository installmentSummaryRepository;
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @InjectMocks
+    private InstallmentSummaryService installmentSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetSummary_ReadsTheSummaryRow() {
+        InstallmentSummary summary = new InstallmentSummary();
+        summary.setTransactionId(1L);
+        summary.setRemainingCount(2);
+        summary.setRemainingAmount(new BigDecimal("20"));
+        summary.setNextInstallmentNumber(3);
+        when(installmentSummaryRepository.findById(1L)).thenReturn(Optional.of(summary));
+
+        InstallmentSummaryResponseDTO response = installmentSummaryService.getSummary(1L);
+
+        assertEquals(1L, response.getTransactionId());
+        assertEquals(2, response.getRemainingCount());
+        assertEquals(new BigDecimal("20"), response.getRemainingAmount());
+        assertEquals(3, response.getNextInstallmentNumber());
+        verify(shardRouter).bindTransaction(1L);
+        verifyNoInteractions(installmentRepository);
+    }
+
+    private static Installment installment(int number, String amount, InstallmentStatus status) {
+        Installment installment = new Installment();
+        installment.setInstallmentNumber(number);
+        installment.setInstallmentAmount(Money.parse(amount));
+        installment.setStatus(status);
+        return installment;
+    }
+
+    @Test
+    void testGetSummary_AggregatesPurchasesWithoutSummary() {
+        when(installmentSummaryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(installmentRepository.findByTransactionTransactionId(1L)).thenReturn(List.of(
+                installment(1, "10.00", InstallmentStatus.PAID),
+                installment(3, "10.25", InstallmentStatus.PENDING),
+                installment(2, "10.25", InstallmentStatus.OVERDUE)));
+
+        InstallmentSummaryResponseDTO response = installmentSummaryService.getSummary(1L);
+
+        assertEquals(1L, response.getTransactionId());
+        assertEquals(2, response.getRemainingCount());
+        assertEquals(new BigDecimal("20.50"), response.getRemainingAmount());
+        assertEquals(2, response.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testGetSummary_FullyPaidPurchaseHasNothingLeft() {
+        when(installmentSummaryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(installmentRepository.findByTransactionTransactionId(1L)).thenReturn(List.of(
+                installment(1, "10.00", InstallmentStatus.PAID)));
+
+        InstallmentSummaryResponseDTO response = installmentSummaryService.getSummary(1L);
+
+        assertEquals(0, response.getRemainingCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(response.getRemainingAmount()));
+        assertNull(response.getNextInstallmentNumber());
+    }
+
+    @Test
+    void testGetSummary_NoInstallments() {
+        when(installmentSummaryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(installmentRepository.findByTransactionTransactionId(1L)).thenReturn(List.of());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
+                installmentSummaryService.getSummary(1L));
+
+        assertEquals("No installments found for transaction ID: 1", exception.getMessage());
+    }
+}
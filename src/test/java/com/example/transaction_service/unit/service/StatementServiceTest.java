@@ -0,0 +1,113 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.dto.response.StatementResponseDTO;
+import com.example.transaction_service.entity.DailyStatement;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.DailyStatementRepository;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.StatementService;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StatementServiceTest {
+
+    @Mock
+    private DailyStatementRepository dailyStatementRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    private StatementService statementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        statementService = new StatementService(dailyStatementRepository, accountService, new ShardRouter(1),
+                Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private static DailyStatement row(String date, int operationTypeId, long count, String debits, String credits) {
+        DailyStatement row = DailyStatement.empty(new DailyStatement.Key(1L, LocalDate.parse(date), operationTypeId));
+        row.setTransactionCount(count);
+        row.setDebitTotal(new BigDecimal(debits));
+        row.setCreditTotal(new BigDecimal(credits));
+        return row;
+    }
+
+    @Test
+    void testGetStatement_SumsTheDailyRows() {
+        LocalDate from = LocalDate.parse("2024-03-01");
+        LocalDate to = LocalDate.parse("2024-03-31");
+        when(dailyStatementRepository.findByAccountIdAndStatementDateBetweenOrderByStatementDateAscOperationTypeIdAsc(
+                1L, from, to)).thenReturn(List.of(
+                row("2024-03-02", 1, 2, "-30.00", "0.00"),
+                row("2024-03-02", 4, 1, "0.00", "50.00"),
+                row("2024-03-05", 3, 1, "-5.25", "0.00")));
+
+        StatementResponseDTO statement = statementService.getStatement(1L, from, to);
+
+        assertEquals(4, statement.getTransactionCount());
+        assertEquals(Money.parse("-35.25"), statement.getDebits());
+        assertEquals(Money.parse("50.00"), statement.getCredits());
+        assertEquals(Money.parse("14.75"), statement.getNet());
+        assertEquals(3, statement.getDays().size());
+        assertEquals(LocalDate.parse("2024-03-05"), statement.getDays().get(2).getDate());
+        verify(accountService).getAccountById(1L);
+    }
+
+    @Test
+    void testGetStatement_SkipsEmptyRows() {
+        when(dailyStatementRepository.findByAccountIdAndStatementDateBetweenOrderByStatementDateAscOperationTypeIdAsc(
+                eq(1L), any(), any())).thenReturn(List.of(
+                row("2024-03-02", 1, 0, "0.00", "0.00"),
+                row("2024-03-03", 1, 1, "-10.00", "0.00")));
+
+        StatementResponseDTO statement = statementService.getStatement(1L, null, null);
+
+        assertEquals(1, statement.getDays().size());
+        assertEquals(1, statement.getTransactionCount());
+    }
+
+    @Test
+    void testGetStatement_DefaultsToTheCurrentMonth() {
+        StatementResponseDTO statement = statementService.getStatement(1L, null, null);
+
+        assertEquals(LocalDate.parse("2024-03-01"), statement.getFrom());
+        assertEquals(LocalDate.parse("2024-03-15"), statement.getTo());
+        assertEquals(Money.ZERO, statement.getNet());
+        assertTrue(statement.getDays().isEmpty());
+    }
+
+    @Test
+    void testGetStatement_InvalidRange() {
+        assertThrows(InvalidRequestException.class, () ->
+                statementService.getStatement(1L, LocalDate.parse("2024-03-02"), LocalDate.parse("2024-03-01")));
+        assertThrows(InvalidRequestException.class, () ->
+                statementService.getStatement(1L, LocalDate.parse("2023-01-01"), LocalDate.parse("2024-03-01")));
+        verifyNoInteractions(dailyStatementRepository);
+    }
+
+    @Test
+    void testGetStatement_UnknownAccount() {
+        when(accountService.getAccountById(99L)).thenThrow(new ResourceNotFoundException("Account not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> statementService.getStatement(99L, null, null));
+        verifyNoInteractions(dailyStatementRepository);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.cache.KnownAccountIds;
+import com.example.transaction_service.dto.response.BatchTransactionResponseDTO;
+import com.example.transaction_service.dto.response.BatchTransactionResultDTO;
+import com.example.transaction_service.entity.Account;
+import com.example.transaction_service.entity.Installment;
+import com.example.transaction_service.entity.InstallmentSummary;
+import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
+import com.example.transaction_service.repository.AccountRepository;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.scheduler.InstallmentScheduler;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.DailyStatementRollup;
+import com.example.transaction_service.service.InstallmentPaymentLocks;
+import com.example.transaction_service.service.TransactionBatchService;
+import com.example.transaction_service.service.TransactionService;
+import com.example.transaction_service.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionBatchServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private InstallmentSummaryRepository installmentSummaryRepository;
+
+    @Mock
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Mock
+    private InstallmentScheduler installmentScheduler;
+
+    @Mock
+    private TransactionOutbox transactionOutbox;
+
+    @Mock
+    private DailyStatementRollup dailyStatementRollup;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TransactionBatchService transactionBatchService;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TransactionService transactionService = new TransactionService(transactionRepository, accountRepository,
+                installmentRepository, installmentSummaryRepository, mock(AccountCache.class), mock(KnownAccountIds.class), accountBalanceLedger,
+                mock(InstallmentPaymentLocks.class), installmentScheduler, transactionOutbox, dailyStatementRollup,
+                mock(TransactionMetrics.class), new ShardRouter(1), transactionTemplate);
+        transactionBatchService = new TransactionBatchService(transactionService, transactionRepository,
+                installmentRepository, installmentSummaryRepository, accountRepository, accountBalanceLedger, installmentScheduler,
+                transactionOutbox, dailyStatementRollup, new ShardRouter(1), transactionTemplate, entityManager, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+
+        Account account = new Account();
+        account.setAccountId(1L);
+        when(accountRepository.findAllById(any())).thenReturn(List.of(account));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(transaction -> transaction.setTransactionId(ids.incrementAndGet()));
+            return transactions;
+        });
+    }
+
+    private BatchTransactionResponseDTO ingest(String body) throws Exception {
+        return transactionBatchService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testIngest_JsonArray() throws Exception {
+        BatchTransactionResponseDTO response = ingest("[" +
+                "{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}," +
+                "{\"accountId\": 1, \"amount\": 50, \"operationTypeId\": 4}," +
+                "{\"accountId\": 1, \"amount\": 10, \"operationTypeId\": 3}]");
+
+        assertEquals(3, response.getReceived());
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getFailed());
+        // chunk size of 2 means two database transactions
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIngest_Ndjson_AppliesSignRules() throws Exception {
+        ingest("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}\n" +
+                "{\"accountId\": 1, \"amount\": 50, \"operationTypeId\": 4}\n");
+
+        verify(transactionRepository).saveAll(argThat(iterable -> {
+            List<Transaction> transactions = (List<Transaction>) iterable;
+            return transactions.get(0).getAmount().equals(Money.of(-100))
+                    && transactions.get(1).getAmount().equals(Money.of(50));
+        }));
+    }
+
+    @Test
+    void testIngest_RecordsBalancesForCreatedRows() throws Exception {
+        ingest("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}\n" +
+                "{\"accountId\": 2, \"amount\": 100, \"operationTypeId\": 4}\n");
+
+        verify(accountBalanceLedger).record(1L, Money.of(-100));
+        verify(accountBalanceLedger, never()).record(eq(2L), any());
+        verify(transactionOutbox).recordAll(argThat(transactions -> transactions.size() == 1));
+        verify(dailyStatementRollup).recordAll(argThat(transactions -> transactions.size() == 1));
+    }
+
+    @Test
+    void testIngest_InvalidRowsAreReportedPerRow() throws Exception {
+        BatchTransactionResponseDTO response = ingest("[" +
+                "{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 9}," +
+                "{\"accountId\": 1, \"amount\": 0, \"operationTypeId\": 1}," +
+                "{\"accountId\": 2, \"amount\": 10, \"operationTypeId\": 1}," +
+                "{\"accountId\": 1, \"amount\": 10, \"operationTypeId\": 2}," +
+                "{\"accountId\": 1, \"amount\": 10, \"operationTypeId\": 1}]");
+
+        List<BatchTransactionResultDTO> failures = response.getFailures();
+        assertEquals(4, failures.size());
+        assertEquals("Invalid OperationType ID: 9", failures.get(0).getError());
+        assertEquals("Amount must be greater than 0", failures.get(1).getError());
+        assertEquals(2, failures.get(2).getIndex());
+        assertEquals("Account not found with ID: 2", failures.get(2).getError());
+        assertEquals("Installments are required for a purchase with installments.", failures.get(3).getError());
+        assertEquals(5, response.getReceived());
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIngest_InstallmentsAreBatchedWithTheirPurchase() throws Exception {
+        ingest("[{\"accountId\": 1, \"amount\": 20, \"operationTypeId\": 2, " +
+                "\"installments\": [{\"amount\": 10}, {\"amount\": 10}]}]");
+
+        verify(installmentRepository).saveAll(argThat(iterable -> {
+            List<Installment> installments = (List<Installment>) iterable;
+            return installments.size() == 2 && installments.get(1).getInstallmentNumber() == 2;
+        }));
+        verify(installmentScheduler).track(argThat(schedule -> schedule.size() == 2));
+        verify(installmentSummaryRepository).saveAll(argThat(iterable -> {
+            List<InstallmentSummary> summaries = (List<InstallmentSummary>) iterable;
+            return summaries.size() == 1 && summaries.get(0).getTransactionId() != null
+                    && summaries.get(0).getRemainingAmount().compareTo(new BigDecimal("20")) == 0;
+        }));
+    }
+
+    @Test
+    void testIngest_MalformedElementStopsTheStream() throws Exception {
+        BatchTransactionResponseDTO response = ingest("{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}\n" +
+                "{\"accountId\": 1, \"amount\": \n");
+
+        assertEquals(2, response.getReceived());
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getFailures().get(0).getIndex());
+        assertTrue(response.getFailures().get(0).getError().startsWith("Malformed transaction"));
+    }
+
+    @Test
+    void testIngest_ChunkFailureMarksItsRowsFailed() throws Exception {
+        when(transactionRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database error"));
+
+        BatchTransactionResponseDTO response = ingest("[{\"accountId\": 1, \"amount\": 100, \"operationTypeId\": 1}]");
+
+        assertEquals(1, response.getFailed());
+        assertEquals("Chunk could not be written: Database error", response.getFailures().get(0).getError());
+    }
+}
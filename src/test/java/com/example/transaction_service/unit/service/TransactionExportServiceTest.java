@@ -0,0 +1,120 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.enums.ExportFormat;
+import com.example.transaction_service.enums.ExportTable;
+import com.example.transaction_service.enums.InstallmentStatus;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.service.TransactionExportService;
+import com.example.transaction_service.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private InstallmentRepository installmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportService transactionExportService;
+
+    private final Timestamp eventDate = Timestamp.from(Instant.parse("2024-03-01T10:15:30Z"));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transactionExportService = new TransactionExportService(transactionRepository, installmentRepository,
+                new ObjectMapper(), transactionManager, new ShardRouter(1));
+    }
+
+    private String export(ExportTable table, ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.export(table, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testExport_TransactionsAsCsv() throws Exception {
+        when(transactionRepository.streamAllForExport()).thenReturn(Stream.of(
+                new Object[]{1L, 10L, 1, new BigDecimal("-100.00"), eventDate},
+                new Object[]{2L, 10L, 4, new BigDecimal("25.50"), eventDate}));
+
+        String csv = export(ExportTable.TRANSACTIONS, ExportFormat.CSV);
+
+        assertEquals("transaction_id,account_id,operation_type_id,amount,event_date\n"
+                + "1,10,1,-100.00,2024-03-01T10:15:30Z\n"
+                + "2,10,4,25.50,2024-03-01T10:15:30Z\n", csv);
+    }
+
+    @Test
+    void testExport_InstallmentsAsNdjson() throws Exception {
+        when(installmentRepository.streamAllForExport()).thenReturn(Stream.<Object[]>of(
+                new Object[]{5L, 1L, 1, new BigDecimal("10.00"), LocalDate.of(2024, 4, 1), InstallmentStatus.PAID},
+                new Object[]{6L, 1L, 2, new BigDecimal("10.00"), null, InstallmentStatus.PENDING}));
+
+        String ndjson = export(ExportTable.INSTALLMENTS, ExportFormat.NDJSON);
+
+        assertEquals("{\"id\":5,\"transaction_id\":1,\"installment_number\":1,\"installment_amount\":10.00,"
+                + "\"due_date\":\"2024-04-01\",\"status\":\"PAID\"}\n"
+                + "{\"id\":6,\"transaction_id\":1,\"installment_number\":2,\"installment_amount\":10.00,"
+                + "\"due_date\":null,\"status\":\"PENDING\"}\n", ndjson);
+    }
+
+    @Test
+    void testExport_EmptyTable() throws Exception {
+        when(transactionRepository.streamAllForExport()).thenReturn(Stream.empty());
+
+        assertEquals("", export(ExportTable.TRANSACTIONS, ExportFormat.NDJSON));
+        when(transactionRepository.streamAllForExport()).thenReturn(Stream.empty());
+        assertEquals("transaction_id,account_id,operation_type_id,amount,event_date\n",
+                export(ExportTable.TRANSACTIONS, ExportFormat.CSV));
+    }
+
+    @Test
+    void testExport_ClosesCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamAllForExport()).thenReturn(LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> new Object[]{id, 10L, 1, BigDecimal.ONE, eventDate})
+                .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = transactionExportService.export(ExportTable.TRANSACTIONS, ExportFormat.CSV, out);
+
+        assertEquals(5, rows);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testResolve_RejectsUnknownNames() {
+        assertEquals(ExportTable.INSTALLMENTS, transactionExportService.resolveTable("Installments"));
+        assertEquals(ExportFormat.NDJSON, transactionExportService.resolveFormat("ndjson"));
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionExportService.resolveTable("accounts"));
+        assertEquals("Invalid export table: accounts", exception.getMessage());
+        assertThrows(InvalidRequestException.class, () -> transactionExportService.resolveFormat("xml"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.transaction_service.unit.service;
+
+import com.example.transaction_service.dto.response.TransactionHistoryItemDTO;
+import com.example.transaction_service.dto.response.TransactionHistoryPageDTO;
+import com.example.transaction_service.exception.InvalidRequestException;
+import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.service.AccountService;
+import com.example.transaction_service.service.TransactionHistoryService;
+import com.example.transaction_service.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionHistoryServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @InjectMocks
+    private TransactionHistoryService transactionHistoryService;
+
+    private final Instant start = Instant.parse("2024-03-01T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private List<TransactionHistoryItemDTO> rows(int count) {
+        List<TransactionHistoryItemDTO> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new TransactionHistoryItemDTO(100L - i, 1, Money.of(-10),
+                    Timestamp.from(start.minusSeconds(i))));
+        }
+        return rows;
+    }
+
+    @Test
+    void testGetTransactions_LastPageHasNoCursor() {
+        when(transactionRepository.findHistoryPage(1L, null, null, null, null, null, 3)).thenReturn(rows(2));
+
+        TransactionHistoryPageDTO page = transactionHistoryService.getTransactions(1L, null, null, null, null, 2);
+
+        assertEquals(2, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetTransactions_CursorResumesAfterLastRow() {
+        when(transactionRepository.findHistoryPage(1L, null, null, null, null, null, 3)).thenReturn(rows(3));
+
+        TransactionHistoryPageDTO first = transactionHistoryService.getTransactions(1L, null, null, null, null, 2);
+
+        assertEquals(2, first.getTransactions().size());
+        assertNotNull(first.getNextCursor());
+
+        transactionHistoryService.getTransactions(1L, null, null, null, first.getNextCursor(), 2);
+
+        // The second page seeks past (event_date, transaction_id) of the last row of the first page
+        verify(transactionRepository).findHistoryPage(1L, null, null, null, start.minusSeconds(1), 99L, 3);
+    }
+
+    @Test
+    void testGetTransactions_PassesFilters() {
+        Instant from = start.minusSeconds(3600);
+        when(transactionRepository.findHistoryPage(1L, 4, from, start, null, null, 51)).thenReturn(List.of());
+
+        TransactionHistoryPageDTO page = transactionHistoryService.getTransactions(1L, 4, from, start, null, null);
+
+        assertTrue(page.getTransactions().isEmpty());
+        verify(transactionRepository).findHistoryPage(1L, 4, from, start, null, null, 51);
+    }
+
+    @Test
+    void testGetTransactions_InvalidCursor() {
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionHistoryService.getTransactions(1L, null, null, null, "not-a-cursor", null));
+
+        assertEquals("Invalid cursor.", exception.getMessage());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testGetTransactions_InvalidLimit() {
+        assertThrows(InvalidRequestException.class, () ->
+                transactionHistoryService.getTransactions(1L, null, null, null, null, 0));
+        assertThrows(InvalidRequestException.class, () ->
+                transactionHistoryService.getTransactions(1L, null, null, null, null, 501));
+    }
+
+    @Test
+    void testGetTransactions_InvalidOperationType() {
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionHistoryService.getTransactions(1L, 9, null, null, null, null));
+
+        assertEquals("Invalid OperationType ID: 9", exception.getMessage());
+    }
+
+    @Test
+    void testGetTransactions_AccountNotFound() {
+        when(accountService.getAccountById(1L)).thenThrow(new ResourceNotFoundException("Account not found with ID: 1"));
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                transactionHistoryService.getTransactions(1L, null, null, null, null, null));
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -1,25 +1,44 @@
 package com.example.transaction_service.unit.service;
 
+import com.example.transaction_service.cache.AccountCache;
+import com.example.transaction_service.cache.KnownAccountIds;
 import com.example.transaction_service.dto.request.InstallmentDTO;
+import com.example.transaction_service.dto.request.PayInstallmentRequestDTO;
 import com.example.transaction_service.dto.request.TransactionRequestDTO;
 import com.example.transaction_service.dto.response.TransactionResponseDTO;
 import com.example.transaction_service.entity.Account;
 import com.example.transaction_service.entity.Installment;
 import com.example.transaction_service.entity.Transaction;
+import com.example.transaction_service.enums.InstallmentStatus;
 import com.example.transaction_service.enums.OperationType;
 import com.example.transaction_service.exception.InvalidRequestException;
 import com.example.transaction_service.exception.ResourceNotFoundException;
+import com.example.transaction_service.metrics.TransactionMetrics;
+import com.example.transaction_service.metrics.TransactionMetrics.Stage;
+import com.example.transaction_service.money.Money;
+import com.example.transaction_service.outbox.TransactionOutbox;
 import com.example.transaction_service.repository.AccountRepository;
 import com.example.transaction_service.repository.InstallmentRepository;
+import com.example.transaction_service.repository.InstallmentSummaryRepository;
 import com.example.transaction_service.repository.TransactionRepository;
+import com.example.transaction_service.scheduler.InstallmentScheduler;
+import com.example.transaction_service.service.AccountBalanceLedger;
+import com.example.transaction_service.service.DailyStatementRollup;
+import com.example.transaction_service.service.InstallmentPaymentLocks;
 import com.example.transaction_service.service.TransactionService;
+import com.example.transaction_service.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +56,39 @@ class TransactionServiceTest {
     @Mock
     private InstallmentRepository installmentRepository;
 
+    @Mock
+    private InstallmentSummaryRepository installmentSummaryRepository;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private KnownAccountIds knownAccountIds;
+
+    @Mock
+    private AccountBalanceLedger accountBalanceLedger;
+
+    @Mock
+    private InstallmentPaymentLocks installmentPaymentLocks;
+
+    @Mock
+    private InstallmentScheduler installmentScheduler;
+
+    @Mock
+    private TransactionOutbox transactionOutbox;
+
+    @Mock
+    private DailyStatementRollup dailyStatementRollup;
+
+    @Mock
+    private TransactionMetrics transactionMetrics;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -46,9 +98,11 @@ class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         transactionRequestDTO = new TransactionRequestDTO();
         transactionRequestDTO.setAccountId(1L);
-        transactionRequestDTO.setAmount(new BigDecimal("100"));
+        transactionRequestDTO.setAmount(Money.of(100));
         transactionRequestDTO.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
         account = new Account();
         account.setAccountId(1L);
@@ -62,24 +116,80 @@ class TransactionServiceTest {
 
         Transaction mockTransaction = new Transaction();
         mockTransaction.setTransactionId(1L);
-        mockTransaction.setAmount(BigDecimal.valueOf(100));
+        mockTransaction.setAmount(Money.of(100));
         mockTransaction.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
 
         when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
 
         transactionRequestDTO.setAccountId(1L);
-        transactionRequestDTO.setAmount(BigDecimal.valueOf(100));
+        transactionRequestDTO.setAmount(Money.of(100));
         transactionRequestDTO.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
 
         TransactionResponseDTO createdTransaction = transactionService.createTransaction(transactionRequestDTO);
 
         assertNotNull(createdTransaction);
         assertEquals(1L, createdTransaction.getTransactionId());
+        verify(accountBalanceLedger).record(1L, Money.of(-100));
+        verify(transactionOutbox).record(mockTransaction);
+        verify(dailyStatementRollup).record(mockTransaction);
+        verify(transactionMetrics).lap(eq(Stage.CREATE_INSERT), anyLong());
+        verify(transactionMetrics).transactionCreated(OperationType.NORMAL_PURCHASE);
+    }
+
+    @Test
+    void testCreateTransaction_CachedAccountSkipsRepository() {
+        when(accountCache.get(1L)).thenReturn(account);
+
+        Transaction mockTransaction = new Transaction();
+        mockTransaction.setTransactionId(1L);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testCreateTransaction_LoadedAccountIsCached() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(new Transaction());
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        verify(accountCache).put(account);
+    }
+
+    @Test
+    void testCreateTransaction_KnownAccountIsLinkedByReference() {
+        when(knownAccountIds.contains(1L)).thenReturn(true);
+        when(accountRepository.getReferenceById(1L)).thenReturn(account);
+
+        Transaction mockTransaction = new Transaction();
+        mockTransaction.setTransactionId(1L);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
+
+        TransactionResponseDTO result = transactionService.createTransaction(transactionRequestDTO);
+
+        assertEquals(1L, result.getTransactionId());
+        verify(accountRepository).getReferenceById(1L);
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountCache, never()).get(anyLong());
+    }
+
+    @Test
+    void testCreateTransaction_LoadedAccountBecomesKnown() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(new Transaction());
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        verify(knownAccountIds).add(1L);
+        verify(accountRepository, never()).getReferenceById(anyLong());
     }
 
     @Test
     void testCreateTransaction_InvalidAmount() {
-        transactionRequestDTO.setAmount(BigDecimal.ZERO);
+        transactionRequestDTO.setAmount(Money.ZERO);
 
         InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
                 transactionService.createTransaction(transactionRequestDTO));
@@ -113,13 +223,13 @@ class TransactionServiceTest {
 
         Transaction mockTransaction = new Transaction();
         mockTransaction.setTransactionId(1L);
-        mockTransaction.setAmount(BigDecimal.valueOf(100));
+        mockTransaction.setAmount(Money.of(100));
         mockTransaction.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
 
         when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
 
         transactionRequestDTO.setAccountId(1L);
-        transactionRequestDTO.setAmount(BigDecimal.valueOf(100));
+        transactionRequestDTO.setAmount(Money.of(100));
         transactionRequestDTO.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
 
         TransactionResponseDTO result = transactionService.createTransaction(transactionRequestDTO);
@@ -134,7 +244,7 @@ class TransactionServiceTest {
 
         Transaction mockTransaction = new Transaction();
         mockTransaction.setTransactionId(1L);
-        mockTransaction.setAmount(BigDecimal.valueOf(100));
+        mockTransaction.setAmount(Money.of(100));
         mockTransaction.setOperationTypeId(OperationType.NORMAL_PURCHASE.getId());
 
         when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
@@ -152,28 +262,103 @@ class TransactionServiceTest {
 
         Transaction mockTransaction = new Transaction();
         mockTransaction.setTransactionId(1L);
-        mockTransaction.setAmount(BigDecimal.valueOf(100));
+        mockTransaction.setAmount(Money.of(100));
         mockTransaction.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
 
         when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
 
         transactionRequestDTO.setAccountId(1L);
         transactionRequestDTO.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
-        transactionRequestDTO.setAmount(BigDecimal.valueOf(100.0));
+        transactionRequestDTO.setAmount(Money.parse("100.0"));
         transactionRequestDTO.setInstallments(List.of(new InstallmentDTO()));
 
-        when(installmentRepository.save(any(Installment.class))).thenReturn(new Installment());
+        when(installmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         TransactionResponseDTO result = transactionService.createTransaction(transactionRequestDTO);
 
         assertNotNull(result);
 
-        verify(installmentRepository, times(1)).save(any(Installment.class));
+        verify(installmentRepository, times(1)).saveAll(anyList());
+        verify(installmentRepository, never()).save(any(Installment.class));
 
         assertEquals("Transaction created successfully", result.getMessage());
     }
 
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateTransaction_WithInstallments_SavesScheduleInOneBatch() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        Transaction mockTransaction = new Transaction();
+        mockTransaction.setTransactionId(1L);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
+
+        InstallmentDTO first = new InstallmentDTO();
+        first.setAmount(Money.of(50));
+        InstallmentDTO second = new InstallmentDTO();
+        second.setAmount(Money.of(50));
+
+        transactionRequestDTO.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        transactionRequestDTO.setInstallments(List.of(first, second));
+
+        ArgumentCaptor<List<Installment>> captor = ArgumentCaptor.forClass(List.class);
+        when(installmentRepository.saveAll(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        List<Installment> schedule = captor.getValue();
+        assertEquals(2, schedule.size());
+        assertEquals(1, schedule.get(0).getInstallmentNumber());
+        assertEquals(2, schedule.get(1).getInstallmentNumber());
+        assertSame(mockTransaction, schedule.get(1).getTransaction());
+        assertEquals(InstallmentStatus.PENDING, schedule.get(0).getStatus());
+    }
+
+    @Test
+    void testCreateTransaction_WithInstallments_SavesSummary() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        Transaction mockTransaction = new Transaction();
+        mockTransaction.setTransactionId(1L);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
+        when(installmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InstallmentDTO first = new InstallmentDTO();
+        first.setAmount(Money.of(30));
+        InstallmentDTO second = new InstallmentDTO();
+        second.setAmount(Money.of(70));
+        transactionRequestDTO.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        transactionRequestDTO.setInstallments(List.of(first, second));
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        verify(installmentSummaryRepository).save(argThat(summary -> summary.getTransactionId() == 1L
+                && summary.getRemainingCount() == 2
+                && summary.getRemainingAmount().compareTo(new BigDecimal("100")) == 0
+                && summary.getNextInstallmentNumber() == 1));
+    }
+
+    @Test
+    void testCreateTransaction_WithInstallments_SetsMonthlyDueDatesAndTracksThem() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        Transaction mockTransaction = new Transaction();
+        mockTransaction.setTransactionId(1L);
+        mockTransaction.setEventDate(Timestamp.valueOf("2024-01-31 10:00:00"));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(mockTransaction);
+        when(installmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionRequestDTO.setOperationTypeId(OperationType.PURCHASE_INSTALLMENTS.getId());
+        transactionRequestDTO.setInstallments(List.of(new InstallmentDTO(), new InstallmentDTO()));
+
+        transactionService.createTransaction(transactionRequestDTO);
+
+        verify(installmentScheduler).track(argThat(schedule ->
+                schedule.get(0).getDueDate().equals(LocalDate.of(2024, 2, 29))
+                        && schedule.get(1).getDueDate().equals(LocalDate.of(2024, 3, 31))));
+    }
+
     @Test
     void testCreateTransaction_SaveFails() {
         when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
@@ -183,6 +368,76 @@ class TransactionServiceTest {
         RuntimeException exception = assertThrows(RuntimeException.class, () -> transactionService.createTransaction(transactionRequestDTO));
 
         assertEquals("Database error", exception.getMessage());
+        verifyNoInteractions(accountBalanceLedger);
+        verifyNoInteractions(transactionOutbox);
+        verifyNoInteractions(dailyStatementRollup);
     }
 
+    private PayInstallmentRequestDTO payInstallmentRequest() {
+        PayInstallmentRequestDTO request = new PayInstallmentRequestDTO();
+        request.setAccountId(1L);
+        request.setTransactionId(1L);
+        request.setInstallmentNumber(1);
+        request.setAmount(Money.of(50));
+        return request;
+    }
+
+    private Installment stubInstallment(InstallmentStatus status) {
+        Transaction purchase = new Transaction();
+        purchase.setTransactionId(1L);
+        Installment installment = new Installment();
+        installment.setInstallmentNumber(1);
+        installment.setInstallmentAmount(Money.of(50));
+        installment.setStatus(status);
+
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(purchase));
+        when(installmentRepository.findByTransactionAndInstallmentNumber(purchase, 1)).thenReturn(Optional.of(installment));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        return installment;
+    }
+
+    @Test
+    void testPayInstallmentByNumber_ReturnsPaymentTransaction() {
+        stubInstallment(InstallmentStatus.PENDING);
+        when(installmentRepository.markPaid(any(), anyLong())).thenReturn(1);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction payment = invocation.getArgument(0);
+            payment.setTransactionId(2L);
+            return payment;
+        });
+
+        TransactionResponseDTO response = transactionService.payInstallmentByNumber(payInstallmentRequest());
+
+        assertEquals(2L, response.getTransactionId());
+        assertEquals("Installment payment successful", response.getMessage());
+        verify(installmentPaymentLocks).lock(1L);
+        verify(installmentRepository).markPaid(any(), anyLong());
+        verify(installmentSummaryRepository).recordPayment(1L, 1, new BigDecimal("50.00"));
+        verify(transactionMetrics).transactionCreated(OperationType.INSTALLMENT_PAYMENT);
+    }
+
+    @Test
+    void testPayInstallmentByNumber_AlreadyPaid() {
+        stubInstallment(InstallmentStatus.PAID);
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionService.payInstallmentByNumber(payInstallmentRequest()));
+
+        assertEquals("Installment has already been paid.", exception.getMessage());
+        verify(installmentRepository, never()).markPaid(any(), anyLong());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testPayInstallmentByNumber_LosesConcurrentUpdate() {
+        stubInstallment(InstallmentStatus.PENDING);
+        when(installmentRepository.markPaid(any(), anyLong())).thenReturn(0);
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class, () ->
+                transactionService.payInstallmentByNumber(payInstallmentRequest()));
+
+        assertEquals("Installment has already been paid.", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verifyNoInteractions(accountBalanceLedger, installmentSummaryRepository);
+    }
 }